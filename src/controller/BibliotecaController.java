@@ -1,12 +1,10 @@
 package controller;
 
 import model.Livro;
-import model.StatusDisponibilidade;
 import service.FacadeService;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class BibliotecaController {
 
@@ -18,17 +16,7 @@ public class BibliotecaController {
 
     public List<Livro> listarLivrosDisponiveis() {
         try {
-            List<Livro> todosLivros = facadeService.listarLivros();
-            return todosLivros.stream()
-                    .filter(livro -> {
-                        if (livro.getStatusDisponibilidade() != StatusDisponibilidade.DISPONIVEL) {
-                            return false;
-                        }
-                        return facadeService.verificarLivroDisponivel(
-                            String.valueOf(livro.getId())
-                        );
-                    })
-                    .collect(Collectors.toList());
+            return facadeService.listarLivrosDisponiveis();
         } catch (Exception e) {
             return Collections.emptyList();
         }
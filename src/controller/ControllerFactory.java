@@ -1,18 +1,52 @@
 package controller;
 
+import exception.LeituraRepositorioException;
+import repository.CatalogoRepositoryImpl;
+import repository.ExecutorRepositorio;
+import repository.GerenciadorTransacoesJdbc;
+import repository.ICatalogoRepository;
+import repository.IGerenciadorTransacoes;
 import repository.IMatriculaRepository;
 import repository.IReservaRepository;
+import repository.GerenciadorTransacoesLocal;
+import repository.LogRegistros;
+import repository.MatriculaRepositoryAssincrono;
+import repository.MatriculaRepositoryEmbarcado;
 import repository.MatriculaRepositoryImpl;
+import repository.MatriculaRepositoryMemoria;
+import repository.ReservaRepositoryAssincrono;
+import repository.ReservaRepositoryEmbarcado;
 import repository.ReservaRepositoryImpl;
+import repository.ReservaRepositoryMemoria;
+import repository.SnapshotRepositorios;
 import service.BibliotecaService;
+import service.CatalogoService;
 import service.DiscenteService;
 import service.DisciplinaService;
 import service.DisponibilidadeService;
 import service.FacadeService;
 import service.GestaoAcademicaService;
 import util.DatabaseConnection;
+import util.DiagnosticoConsultas;
+import util.EnvironmentConfig;
+import util.EstatisticasHttp;
+import util.HttpClientHttp2;
 import util.HttpClientImpl;
+import util.HttpClientResiliente;
 import util.IHttpClient;
+import util.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 public class ControllerFactory {
 
@@ -23,35 +57,76 @@ public class ControllerFactory {
     private final ReservaController reservaController;
     private final DatabaseConnection dbConnection;
     private final FacadeService facadeService;
+    private final String descricaoArmazenamento;
+    private final String modoPersistencia;
+    private final IMatriculaRepository matriculaRepository;
+    private final IReservaRepository reservaRepository;
+    private final List<AutoCloseable> recursos;
+    private final EstatisticasHttp estatisticasHttp;
+
+    private ControllerFactory(
+            DatabaseConnection dbConnection,
+            IMatriculaRepository matriculaRepository,
+            IReservaRepository reservaRepository,
+            ICatalogoRepository catalogoRepository,
+            IGerenciadorTransacoes gerenciadorTransacoes,
+            ExecutorRepositorio executorRepositorio,
+            String descricaoArmazenamento,
+            String modoPersistencia,
+            List<AutoCloseable> recursos) {
 
-    private ControllerFactory(DatabaseConnection dbConnection) {
         this.dbConnection = dbConnection;
+        this.descricaoArmazenamento = descricaoArmazenamento;
+        this.modoPersistencia = modoPersistencia;
+        this.matriculaRepository = matriculaRepository;
+        this.reservaRepository = reservaRepository;
+        this.recursos = new ArrayList<>();
+        this.recursos.add(executorRepositorio);
+        this.recursos.addAll(recursos);
+
+        MatriculaRepositoryAssincrono matriculasAssincronas =
+            new MatriculaRepositoryAssincrono(matriculaRepository, executorRepositorio);
+        ReservaRepositoryAssincrono reservasAssincronas =
+            new ReservaRepositoryAssincrono(reservaRepository, executorRepositorio);
 
-        IHttpClient httpClient = new HttpClientImpl();
+        this.estatisticasHttp = new EstatisticasHttp();
+        IHttpClient httpClient = criarHttpClient(estatisticasHttp);
+        if (httpClient instanceof AutoCloseable) {
+            this.recursos.add((AutoCloseable) httpClient);
+        }
         util.GsonParser gsonParser = new util.GsonParser();
-        
-        IMatriculaRepository matriculaRepository =
-            new MatriculaRepositoryImpl(dbConnection);
-        IReservaRepository reservaRepository =
-            new ReservaRepositoryImpl(dbConnection);
 
-        DiscenteService discenteService = new DiscenteService(httpClient, gsonParser);
-        DisciplinaService disciplinaService = new DisciplinaService(httpClient, gsonParser);
-        BibliotecaService bibliotecaService = new BibliotecaService(httpClient, gsonParser);
+        DiscenteService discenteService = new DiscenteService(
+            httpClient, gsonParser, Duration.ofMillis(EnvironmentConfig.getHttpTimeoutDiscentesMs()));
+        DisciplinaService disciplinaService = new DisciplinaService(
+            httpClient, gsonParser, Duration.ofMillis(EnvironmentConfig.getHttpTimeoutDisciplinasMs()));
+        BibliotecaService bibliotecaService = new BibliotecaService(
+            httpClient, gsonParser, Duration.ofMillis(EnvironmentConfig.getHttpTimeoutBibliotecaMs()));
 
+        CatalogoService catalogoService = new CatalogoService(
+            discenteService,
+            disciplinaService,
+            bibliotecaService,
+            catalogoRepository
+        );
 
         DisponibilidadeService disponibilidadeService = new DisponibilidadeService(
             discenteService,
             disciplinaService,
             bibliotecaService,
             matriculaRepository,
-            reservaRepository
+            reservaRepository,
+            matriculasAssincronas,
+            reservasAssincronas,
+            catalogoService
         );
 
         GestaoAcademicaService gestaoService = new GestaoAcademicaService(
             matriculaRepository,
             reservaRepository,
-            disponibilidadeService
+            disponibilidadeService,
+            gerenciadorTransacoes,
+            matriculasAssincronas
         );
 
         this.facadeService = new FacadeService(
@@ -59,7 +134,8 @@ public class ControllerFactory {
             disciplinaService,
             bibliotecaService,
             disponibilidadeService,
-            gestaoService
+            gestaoService,
+            catalogoService
         );
 
         this.discenteController = new DiscenteController(facadeService);
@@ -69,17 +145,265 @@ public class ControllerFactory {
         this.reservaController = new ReservaController(facadeService);
     }
 
+    private static IHttpClient criarHttpClient(EstatisticasHttp estatisticas) {
+        IHttpClient cliente = criarHttpClientBase(estatisticas);
+
+        int tentativas = EnvironmentConfig.getHttpTentativas();
+        int percentilHedge = EnvironmentConfig.getHttpHedgePercentil();
+        if (percentilHedge < 0 || percentilHedge > 99) {
+            Logger.aviso("[ControllerFactory] HTTP_HEDGE_PERCENTIL inválido: " + percentilHedge + " (hedge desativado)");
+            percentilHedge = 0;
+        }
+        if (tentativas <= 1 && percentilHedge == 0) {
+            return cliente;
+        }
+
+        return new HttpClientResiliente(
+            cliente,
+            tentativas,
+            Duration.ofMillis(EnvironmentConfig.getHttpBackoffMs()),
+            Duration.ofMillis(EnvironmentConfig.getHttpBackoffMaximoMs()),
+            percentilHedge,
+            Duration.ofMillis(EnvironmentConfig.getHttpHedgeAtrasoMs()),
+            percentilHedge > 0 ? Executors.newVirtualThreadPerTaskExecutor() : null
+        );
+    }
+
+    private static IHttpClient criarHttpClientBase(EstatisticasHttp estatisticas) {
+        String cliente = EnvironmentConfig.getHttpCliente();
+        switch (cliente) {
+            case "legado":
+                return new HttpClientImpl(estatisticas);
+            case "http2":
+                return new HttpClientHttp2(criarExecutorHttp(),
+                    Duration.ofMillis(EnvironmentConfig.getHttpTimeoutMs()), estatisticas);
+            default:
+                Logger.aviso("[ControllerFactory] HTTP_CLIENTE desconhecido: " + cliente + " (usando http2)");
+                return new HttpClientHttp2(criarExecutorHttp(),
+                    Duration.ofMillis(EnvironmentConfig.getHttpTimeoutMs()), estatisticas);
+        }
+    }
+
+    private static ExecutorService criarExecutorHttp() {
+        String executor = EnvironmentConfig.getHttpExecutor();
+        if ("padrao".equals(executor)) {
+            return null;
+        }
+        if ("virtual".equals(executor)) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        try {
+            return Executors.newFixedThreadPool(Integer.parseInt(executor));
+        } catch (IllegalArgumentException e) {
+            Logger.aviso("[ControllerFactory] HTTP_EXECUTOR inválido: " + executor + " (usando padrao)");
+            return null;
+        }
+    }
+
     public void inicializarCaches() {
         facadeService.inicializarCaches();
+
+        long intervaloSeg = EnvironmentConfig.getCatalogoAtualizacaoSeg();
+        if (intervaloSeg > 0) {
+            ScheduledExecutorService atualizador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "ControllerFactory-AtualizacaoCatalogos");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Uma exceção não tratada cancelaria silenciosamente as execuções seguintes
+            atualizador.scheduleWithFixedDelay(() -> {
+                try {
+                    facadeService.atualizarCatalogos();
+                } catch (RuntimeException e) {
+                    Logger.erro("[ControllerFactory] Falha na revalidação dos catálogos: " + e.getMessage());
+                }
+            }, intervaloSeg, intervaloSeg, TimeUnit.SECONDS);
+            recursos.add(atualizador::shutdownNow);
+            Logger.info("[ControllerFactory] Catálogos revalidados a cada " + intervaloSeg + "s");
+        }
     }
 
     public static ControllerFactory criar() {
-        DatabaseConnection dbConnection = new DatabaseConnection();
-        return new ControllerFactory(dbConnection);
+        String modo = EnvironmentConfig.getModoRepositorio();
+        switch (modo) {
+            case "embarcado":
+                return criarEmbarcado(Paths.get(EnvironmentConfig.getEmbarcadoDiretorio()));
+            case "memoria":
+                return criarMemoria();
+            case "mysql":
+                return criar(new DatabaseConnection());
+            default:
+                Logger.aviso("[ControllerFactory] REPOSITORIO desconhecido: " + modo + " (usando mysql)");
+                return criar(new DatabaseConnection());
+        }
     }
 
     public static ControllerFactory criar(DatabaseConnection dbConnection) {
-        return new ControllerFactory(dbConnection);
+        ControllerFactory factory = new ControllerFactory(
+            dbConnection,
+            new MatriculaRepositoryImpl(dbConnection),
+            new ReservaRepositoryImpl(dbConnection),
+            new CatalogoRepositoryImpl(dbConnection),
+            new GerenciadorTransacoesJdbc(dbConnection),
+            new ExecutorRepositorio(EnvironmentConfig.getPoolTamanhoMaximo(), dbConnection::possuiConexaoVinculada),
+            "Conectado ao MySQL - Dados persistidos!",
+            EnvironmentConfig.getModoPersistencia(),
+            List.of());
+        diagnosticar(dbConnection);
+        factory.restaurarSnapshot();
+        return factory;
+    }
+
+    private static void diagnosticar(DatabaseConnection dbConnection) {
+        String modo = EnvironmentConfig.getModoDiagnostico();
+        switch (modo) {
+            case "off":
+                return;
+            case "verificar":
+                new DiagnosticoConsultas(dbConnection).executar(false);
+                return;
+            case "aplicar":
+                new DiagnosticoConsultas(dbConnection).executar(true);
+                return;
+            default:
+                Logger.aviso("[ControllerFactory] DB_DIAGNOSTICO desconhecido: " + modo + " (diagnóstico desativado)");
+        }
+    }
+
+    public static ControllerFactory criarMemoria() {
+        ControllerFactory factory = new ControllerFactory(
+            null,
+            new MatriculaRepositoryMemoria(),
+            new ReservaRepositoryMemoria(),
+            null,
+            new GerenciadorTransacoesLocal(),
+            executorLocal(),
+            "Armazenamento em memória - Dados descartados ao encerrar!",
+            EnvironmentConfig.getModoPersistencia(),
+            List.of());
+        factory.restaurarSnapshot();
+        return factory;
+    }
+
+    public static ControllerFactory criarEmbarcado(Path diretorio) {
+        LogRegistros.PoliticaFsync politica;
+        try {
+            politica = LogRegistros.PoliticaFsync.valueOf(EnvironmentConfig.getEmbarcadoPoliticaFsync());
+        } catch (IllegalArgumentException e) {
+            Logger.aviso("[ControllerFactory] EMBARCADO_FSYNC inválido (usando PERIODICA)");
+            politica = LogRegistros.PoliticaFsync.PERIODICA;
+        }
+        long intervaloFsyncMs = EnvironmentConfig.getEmbarcadoIntervaloFsyncMs();
+
+        MatriculaRepositoryEmbarcado matriculaRepository = null;
+        try {
+            matriculaRepository = new MatriculaRepositoryEmbarcado(diretorio, politica, intervaloFsyncMs);
+            ReservaRepositoryEmbarcado reservaRepository = new ReservaRepositoryEmbarcado(diretorio, politica, intervaloFsyncMs);
+
+            return new ControllerFactory(
+                null,
+                matriculaRepository,
+                reservaRepository,
+                null,
+                new GerenciadorTransacoesLocal(),
+                executorLocal(),
+                "Armazenamento embarcado em " + diretorio.toAbsolutePath() + " - Dados persistidos!",
+                "manter",
+                List.of(matriculaRepository, reservaRepository));
+
+        } catch (IOException e) {
+            if (matriculaRepository != null) {
+                matriculaRepository.close();
+            }
+            throw new RuntimeException("Falha ao abrir armazenamento embarcado em " + diretorio + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static ExecutorRepositorio executorLocal() {
+        return new ExecutorRepositorio(Runtime.getRuntime().availableProcessors(), () -> false);
+    }
+
+    private void restaurarSnapshot() {
+        if (!"snapshot".equals(modoPersistencia)) {
+            return;
+        }
+
+        // Dados já presentes indicam que o último encerramento não chegou a gravar o snapshot
+        try (Stream<?> matriculas = matriculaRepository.streamTodas();
+             Stream<?> reservas = reservaRepository.streamTodas()) {
+            if (matriculas.findAny().isPresent() || reservas.findAny().isPresent()) {
+                Logger.aviso("[ControllerFactory] Repositórios não estão vazios; snapshot não restaurado.");
+                return;
+            }
+        } catch (LeituraRepositorioException e) {
+            Logger.erro("[ControllerFactory] Não foi possível verificar os repositórios; snapshot não restaurado: " + e.getMessage());
+            return;
+        }
+
+        SnapshotRepositorios.restaurar(Paths.get(EnvironmentConfig.getArquivoSnapshot()), matriculaRepository, reservaRepository);
+    }
+
+    private void encerrarComSnapshot() {
+        SnapshotRepositorios.Gravacao gravacao = SnapshotRepositorios.gravar(
+            Paths.get(EnvironmentConfig.getArquivoSnapshot()), matriculaRepository, reservaRepository);
+        if (gravacao == null) {
+            Logger.aviso("[ControllerFactory] Snapshot não gravado; dados mantidos nas tabelas.");
+            return;
+        }
+
+        // Só descarta as tabelas se o snapshot contém exatamente o que está no banco
+        if (dbConnection != null) {
+            long matriculas = dbConnection.contarRegistros("matriculas");
+            long reservas = dbConnection.contarRegistros("reservas_livros");
+            if (matriculas != gravacao.getTotalMatriculas() || reservas != gravacao.getTotalReservas()) {
+                Logger.erro("[ControllerFactory] Snapshot incompleto: " + gravacao.getTotalMatriculas() + "/" + matriculas +
+                    " matrículas e " + gravacao.getTotalReservas() + "/" + reservas +
+                    " reservas. Snapshot anterior e tabelas mantidos.");
+                gravacao.descartar();
+                return;
+            }
+        }
+
+        if (gravacao.confirmar() && dbConnection != null) {
+            dbConnection.limparTodasTabelas();
+        }
+    }
+
+    public void encerrar() {
+        switch (modoPersistencia) {
+            case "manter":
+                break;
+            case "limpar":
+                if (dbConnection != null) {
+                    dbConnection.limparTodasTabelas();
+                }
+                break;
+            case "snapshot":
+                encerrarComSnapshot();
+                break;
+            default:
+                Logger.aviso("[ControllerFactory] PERSISTENCIA desconhecida: " + modoPersistencia + " (dados mantidos)");
+        }
+
+        if (dbConnection != null) {
+            dbConnection.fechar();
+        }
+
+        if (EnvironmentConfig.isMetricasHttpRelatorioNoEncerramento()) {
+            Logger.info("[ControllerFactory] Tráfego HTTP por endpoint:\n" + estatisticasHttp.relatorio());
+        }
+
+        for (AutoCloseable recurso : recursos) {
+            try {
+                recurso.close();
+            } catch (Exception e) {
+                Logger.erro("[ControllerFactory] Erro ao fechar recurso: " + e.getMessage());
+            }
+        }
+    }
+
+    public String getDescricaoArmazenamento() {
+        return descricaoArmazenamento;
     }
 
     public DiscenteController getDiscenteController() {
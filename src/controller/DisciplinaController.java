@@ -3,8 +3,10 @@ package controller;
 import model.Disciplina;
 import service.FacadeService;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class DisciplinaController {
@@ -38,14 +40,19 @@ public class DisciplinaController {
                 disciplinas = facadeService.listarDisciplinasPorCurso(curso);
             }
 
+            Map<Long, Integer> vagasReais = facadeService.calcularVagasDisponiveis(disciplinas);
+
+            List<Disciplina> resultado = new ArrayList<>(disciplinas.size());
             for (Disciplina disciplina : disciplinas) {
-                int vagasReais = facadeService.calcularVagasDisponiveis(
-                    String.valueOf(disciplina.getId())
-                );
-                disciplina.setVagas(vagasReais);
+                resultado.add(new Disciplina(
+                    disciplina.getId(),
+                    disciplina.getCurso(),
+                    disciplina.getNome(),
+                    vagasReais.getOrDefault(disciplina.getId(), 0)
+                ));
             }
 
-            return disciplinas;
+            return resultado;
 
         } catch (Exception e) {
             return Collections.emptyList();
@@ -1,15 +1,20 @@
 package controller;
 
+import exception.LeituraRepositorioException;
 import model.Discente;
 import model.Disciplina;
 import model.Matricula;
+import model.MatriculaDetalhada;
+import repository.ExecutorRepositorio;
 import service.FacadeService;
+import util.Logger;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class MatriculaController {
 
@@ -37,7 +42,12 @@ public class MatriculaController {
 
     public List<Map<String, Object>> consultarMatriculas(String discenteId) {
         try {
-            List<Matricula> matriculas = facadeService.listarMatriculasDiscente(discenteId);
+            List<MatriculaDetalhada> detalhadas = facadeService.listarMatriculasDetalhadas(discenteId);
+            if (detalhadas != null) {
+                return converterDetalhadas(detalhadas);
+            }
+
+            CompletableFuture<List<Matricula>> matriculasFuturo = facadeService.listarMatriculasDiscenteAssincrono(discenteId);
             List<Map<String, Object>> resultado = new ArrayList<>();
 
             Discente discente = null;
@@ -47,6 +57,8 @@ public class MatriculaController {
             } catch (Exception e) {
             }
 
+            List<Matricula> matriculas = ExecutorRepositorio.aguardar(matriculasFuturo);
+
             for (Matricula matricula : matriculas) {
                 Map<String, Object> info = new HashMap<>();
 
@@ -63,8 +75,7 @@ public class MatriculaController {
                 }
 
                 try {
-                    Long disciplinaId = Long.parseLong(matricula.getDisciplinaId());
-                    Disciplina disciplina = facadeService.buscarDisciplina(disciplinaId);
+                    Disciplina disciplina = facadeService.buscarDisciplina(matricula.getDisciplinaId());
 
                     if (disciplina != null) {
                         info.put("disciplinaId", matricula.getDisciplinaId());
@@ -86,8 +97,44 @@ public class MatriculaController {
 
             return resultado;
 
+        } catch (LeituraRepositorioException e) {
+            Logger.erro("[MatriculaController] Falha ao consultar matrículas: " + e.getMessage());
+            return Collections.emptyList();
         } catch (Exception e) {
             return Collections.emptyList();
         }
     }
+
+    private List<Map<String, Object>> converterDetalhadas(List<MatriculaDetalhada> detalhadas) {
+        List<Map<String, Object>> resultado = new ArrayList<>();
+
+        for (MatriculaDetalhada matricula : detalhadas) {
+            Map<String, Object> info = new HashMap<>();
+
+            info.put("codigoMatricula", matricula.getCodigoMatricula());
+            info.put("discenteId", matricula.getDiscenteId());
+            info.put("dataMatricula", matricula.getDataMatricula());
+
+            if (matricula.getDiscenteNome() != null) {
+                info.put("discenteNome", matricula.getDiscenteNome());
+                info.put("discenteCurso", matricula.getDiscenteCurso());
+            } else {
+                info.put("discenteNome", "Não encontrado");
+                info.put("discenteCurso", "N/A");
+            }
+
+            info.put("disciplinaId", matricula.getDisciplinaId());
+            if (matricula.getDisciplinaNome() != null) {
+                info.put("disciplinaNome", matricula.getDisciplinaNome());
+                info.put("disciplinaCurso", matricula.getDisciplinaCurso());
+            } else {
+                info.put("disciplinaNome", "Disciplina não encontrada");
+                info.put("disciplinaCurso", "N/A");
+            }
+
+            resultado.add(info);
+        }
+
+        return resultado;
+    }
 }
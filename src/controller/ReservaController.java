@@ -2,6 +2,7 @@ package controller;
 
 import model.Livro;
 import model.Matricula;
+import model.ReservaDetalhada;
 import model.ReservaLivro;
 import service.FacadeService;
 
@@ -37,20 +38,24 @@ public class ReservaController {
 
     public List<Map<String, Object>> consultarReservas(String codigoMatricula) {
         try {
+            List<ReservaDetalhada> detalhadas = facadeService.listarReservasDetalhadas(codigoMatricula);
+            if (detalhadas != null) {
+                return converterDetalhadas(detalhadas);
+            }
+
             Matricula matricula = facadeService.buscarMatriculaPorCodigo(codigoMatricula);
             if (matricula == null) {
                 return Collections.emptyList();
             }
 
-            String discenteId = matricula.getDiscenteId();
+            Long discenteId = matricula.getDiscenteId();
             List<ReservaLivro> reservas = facadeService.listarReservasDiscente(discenteId);
             List<Map<String, Object>> resultado = new ArrayList<>();
 
             for (ReservaLivro reserva : reservas) {
                 Map<String, Object> info = new HashMap<>();
                 try {
-                    Long livroId = Long.parseLong(reserva.getLivroId());
-                    Livro livro = facadeService.buscarLivro(livroId);
+                    Livro livro = facadeService.buscarLivro(reserva.getLivroId());
 
                     if (livro != null) {
                         info.put("livroId", reserva.getLivroId());
@@ -79,4 +84,26 @@ public class ReservaController {
             return Collections.emptyList();
         }
     }
+
+    private List<Map<String, Object>> converterDetalhadas(List<ReservaDetalhada> detalhadas) {
+        List<Map<String, Object>> resultado = new ArrayList<>();
+
+        for (ReservaDetalhada reserva : detalhadas) {
+            Map<String, Object> info = new HashMap<>();
+
+            info.put("livroId", reserva.getLivroId());
+            if (reserva.getTitulo() != null) {
+                info.put("titulo", reserva.getTitulo());
+                info.put("autor", reserva.getAutor());
+            } else {
+                info.put("titulo", "Livro não encontrado");
+                info.put("autor", "N/A");
+            }
+            info.put("dataReserva", reserva.getDataReserva());
+
+            resultado.add(info);
+        }
+
+        return resultado;
+    }
 }
@@ -0,0 +1,8 @@
+package exception;
+
+public class LeituraRepositorioException extends RuntimeException {
+
+    public LeituraRepositorioException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
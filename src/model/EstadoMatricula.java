@@ -0,0 +1,34 @@
+package model;
+
+public class EstadoMatricula {
+    private final int totalMatriculasDiscente;
+    private final int totalMatriculasDisciplina;
+    private final boolean jaMatriculado;
+
+    public EstadoMatricula(int totalMatriculasDiscente, int totalMatriculasDisciplina, boolean jaMatriculado) {
+        this.totalMatriculasDiscente = totalMatriculasDiscente;
+        this.totalMatriculasDisciplina = totalMatriculasDisciplina;
+        this.jaMatriculado = jaMatriculado;
+    }
+
+    public int getTotalMatriculasDiscente() {
+        return totalMatriculasDiscente;
+    }
+
+    public int getTotalMatriculasDisciplina() {
+        return totalMatriculasDisciplina;
+    }
+
+    public boolean isJaMatriculado() {
+        return jaMatriculado;
+    }
+
+    @Override
+    public String toString() {
+        return "EstadoMatricula{" +
+                "totalMatriculasDiscente=" + totalMatriculasDiscente +
+                ", totalMatriculasDisciplina=" + totalMatriculasDisciplina +
+                ", jaMatriculado=" + jaMatriculado +
+                '}';
+    }
+}
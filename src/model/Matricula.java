@@ -5,11 +5,11 @@ import java.time.LocalDate;
 public class Matricula {
     private Integer id;
     private String codigoMatricula;
-    private String discenteId;
-    private String disciplinaId;
+    private Long discenteId;
+    private Long disciplinaId;
     private LocalDate dataMatricula;
 
-    private Matricula(Integer id, String codigoMatricula, String discenteId, String disciplinaId, LocalDate dataMatricula) {
+    private Matricula(Integer id, String codigoMatricula, Long discenteId, Long disciplinaId, LocalDate dataMatricula) {
         this.id = id;
         this.codigoMatricula = codigoMatricula;
         this.discenteId = discenteId;
@@ -17,11 +17,15 @@ public class Matricula {
         this.dataMatricula = dataMatricula;
     }
 
-    public static Matricula nova(String codigoMatricula, String discenteId, String disciplinaId, LocalDate dataMatricula) {
+    public static Matricula nova(String codigoMatricula, Long discenteId, Long disciplinaId, LocalDate dataMatricula) {
         return new Matricula(null, codigoMatricula, discenteId, disciplinaId, dataMatricula);
     }
 
-    public static Matricula doBanco(Integer id, String codigoMatricula, String discenteId, String disciplinaId, LocalDate dataMatricula) {
+    public static Matricula nova(String codigoMatricula, String discenteId, String disciplinaId, LocalDate dataMatricula) {
+        return nova(codigoMatricula, Long.valueOf(discenteId.trim()), Long.valueOf(disciplinaId.trim()), dataMatricula);
+    }
+
+    public static Matricula doBanco(Integer id, String codigoMatricula, Long discenteId, Long disciplinaId, LocalDate dataMatricula) {
         return new Matricula(id, codigoMatricula, discenteId, disciplinaId, dataMatricula);
     }
 
@@ -41,19 +45,19 @@ public class Matricula {
         this.codigoMatricula = codigoMatricula;
     }
 
-    public String getDiscenteId() {
+    public Long getDiscenteId() {
         return discenteId;
     }
 
-    public void setDiscenteId(String discenteId) {
+    public void setDiscenteId(Long discenteId) {
         this.discenteId = discenteId;
     }
 
-    public String getDisciplinaId() {
+    public Long getDisciplinaId() {
         return disciplinaId;
     }
 
-    public void setDisciplinaId(String disciplinaId) {
+    public void setDisciplinaId(Long disciplinaId) {
         this.disciplinaId = disciplinaId;
     }
 
@@ -70,8 +74,8 @@ public class Matricula {
         return "Matricula{" +
                 "id=" + id +
                 ", codigoMatricula='" + codigoMatricula + '\'' +
-                ", discenteId='" + discenteId + '\'' +
-                ", disciplinaId='" + disciplinaId + '\'' +
+                ", discenteId=" + discenteId +
+                ", disciplinaId=" + disciplinaId +
                 ", dataMatricula=" + dataMatricula +
                 '}';
     }
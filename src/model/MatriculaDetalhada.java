@@ -0,0 +1,70 @@
+package model;
+
+import java.time.LocalDate;
+
+public class MatriculaDetalhada {
+    private final String codigoMatricula;
+    private final Long discenteId;
+    private final String discenteNome;
+    private final String discenteCurso;
+    private final Long disciplinaId;
+    private final String disciplinaNome;
+    private final String disciplinaCurso;
+    private final LocalDate dataMatricula;
+
+    public MatriculaDetalhada(String codigoMatricula, Long discenteId, String discenteNome, String discenteCurso,
+                              Long disciplinaId, String disciplinaNome, String disciplinaCurso, LocalDate dataMatricula) {
+        this.codigoMatricula = codigoMatricula;
+        this.discenteId = discenteId;
+        this.discenteNome = discenteNome;
+        this.discenteCurso = discenteCurso;
+        this.disciplinaId = disciplinaId;
+        this.disciplinaNome = disciplinaNome;
+        this.disciplinaCurso = disciplinaCurso;
+        this.dataMatricula = dataMatricula;
+    }
+
+    public String getCodigoMatricula() {
+        return codigoMatricula;
+    }
+
+    public Long getDiscenteId() {
+        return discenteId;
+    }
+
+    public String getDiscenteNome() {
+        return discenteNome;
+    }
+
+    public String getDiscenteCurso() {
+        return discenteCurso;
+    }
+
+    public Long getDisciplinaId() {
+        return disciplinaId;
+    }
+
+    public String getDisciplinaNome() {
+        return disciplinaNome;
+    }
+
+    public String getDisciplinaCurso() {
+        return disciplinaCurso;
+    }
+
+    public LocalDate getDataMatricula() {
+        return dataMatricula;
+    }
+
+    @Override
+    public String toString() {
+        return "MatriculaDetalhada{" +
+                "codigoMatricula='" + codigoMatricula + '\'' +
+                ", discenteId=" + discenteId +
+                ", discenteNome='" + discenteNome + '\'' +
+                ", disciplinaId=" + disciplinaId +
+                ", disciplinaNome='" + disciplinaNome + '\'' +
+                ", dataMatricula=" + dataMatricula +
+                '}';
+    }
+}
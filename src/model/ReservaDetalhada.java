@@ -0,0 +1,49 @@
+package model;
+
+import java.time.LocalDate;
+
+public class ReservaDetalhada {
+    private final Long discenteId;
+    private final Long livroId;
+    private final String titulo;
+    private final String autor;
+    private final LocalDate dataReserva;
+
+    public ReservaDetalhada(Long discenteId, Long livroId, String titulo, String autor, LocalDate dataReserva) {
+        this.discenteId = discenteId;
+        this.livroId = livroId;
+        this.titulo = titulo;
+        this.autor = autor;
+        this.dataReserva = dataReserva;
+    }
+
+    public Long getDiscenteId() {
+        return discenteId;
+    }
+
+    public Long getLivroId() {
+        return livroId;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public String getAutor() {
+        return autor;
+    }
+
+    public LocalDate getDataReserva() {
+        return dataReserva;
+    }
+
+    @Override
+    public String toString() {
+        return "ReservaDetalhada{" +
+                "discenteId=" + discenteId +
+                ", livroId=" + livroId +
+                ", titulo='" + titulo + '\'' +
+                ", dataReserva=" + dataReserva +
+                '}';
+    }
+}
@@ -4,22 +4,26 @@ import java.time.LocalDate;
 
 public class ReservaLivro {
     private Integer id;
-    private String discenteId;
-    private String livroId;
+    private Long discenteId;
+    private Long livroId;
     private LocalDate dataReserva;
 
-    private ReservaLivro(Integer id, String discenteId, String livroId, LocalDate dataReserva) {
+    private ReservaLivro(Integer id, Long discenteId, Long livroId, LocalDate dataReserva) {
         this.id = id;
         this.discenteId = discenteId;
         this.livroId = livroId;
         this.dataReserva = dataReserva;
     }
 
-    public static ReservaLivro nova(String discenteId, String livroId, LocalDate dataReserva) {
+    public static ReservaLivro nova(Long discenteId, Long livroId, LocalDate dataReserva) {
         return new ReservaLivro(null, discenteId, livroId, dataReserva);
     }
 
-    public static ReservaLivro doBanco(Integer id, String discenteId, String livroId, LocalDate dataReserva) {
+    public static ReservaLivro nova(String discenteId, String livroId, LocalDate dataReserva) {
+        return nova(Long.valueOf(discenteId.trim()), Long.valueOf(livroId.trim()), dataReserva);
+    }
+
+    public static ReservaLivro doBanco(Integer id, Long discenteId, Long livroId, LocalDate dataReserva) {
         return new ReservaLivro(id, discenteId, livroId, dataReserva);
     }
 
@@ -31,19 +35,19 @@ public class ReservaLivro {
         this.id = id;
     }
 
-    public String getDiscenteId() {
+    public Long getDiscenteId() {
         return discenteId;
     }
 
-    public void setDiscenteId(String discenteId) {
+    public void setDiscenteId(Long discenteId) {
         this.discenteId = discenteId;
     }
 
-    public String getLivroId() {
+    public Long getLivroId() {
         return livroId;
     }
 
-    public void setLivroId(String livroId) {
+    public void setLivroId(Long livroId) {
         this.livroId = livroId;
     }
 
@@ -59,8 +63,8 @@ public class ReservaLivro {
     public String toString() {
         return "ReservaLivro{" +
                 "id=" + id +
-                ", discenteId='" + discenteId + '\'' +
-                ", livroId='" + livroId + '\'' +
+                ", discenteId=" + discenteId +
+                ", livroId=" + livroId +
                 ", dataReserva=" + dataReserva +
                 '}';
     }
@@ -0,0 +1,256 @@
+package repository;
+
+import model.Discente;
+import model.Disciplina;
+import model.Livro;
+import model.MatriculaDetalhada;
+import model.ReservaDetalhada;
+import util.DatabaseConnection;
+import util.Logger;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class CatalogoRepositoryImpl implements ICatalogoRepository {
+
+    private final DatabaseConnection databaseConnection;
+
+    private static final String SQL_UPSERT_DISCENTE =
+        "INSERT INTO catalogo_discentes (id, nome, curso, modalidade, situacao_academica, sincronizacao) " +
+        "VALUES (?, ?, ?, ?, ?, ?) AS novo ON DUPLICATE KEY UPDATE nome = novo.nome, curso = novo.curso, " +
+        "modalidade = novo.modalidade, situacao_academica = novo.situacao_academica, sincronizacao = novo.sincronizacao";
+
+    private static final String SQL_UPSERT_DISCIPLINA =
+        "INSERT INTO catalogo_disciplinas (id, nome, curso, vagas, sincronizacao) " +
+        "VALUES (?, ?, ?, ?, ?) AS novo ON DUPLICATE KEY UPDATE nome = novo.nome, curso = novo.curso, " +
+        "vagas = novo.vagas, sincronizacao = novo.sincronizacao";
+
+    private static final String SQL_UPSERT_LIVRO =
+        "INSERT INTO catalogo_livros (id, titulo, autor, ano, status_disponibilidade, sincronizacao) " +
+        "VALUES (?, ?, ?, ?, ?, ?) AS novo ON DUPLICATE KEY UPDATE titulo = novo.titulo, autor = novo.autor, " +
+        "ano = novo.ano, status_disponibilidade = novo.status_disponibilidade, sincronizacao = novo.sincronizacao";
+
+    private static final String SQL_REMOVER_AUSENTES =
+        "DELETE FROM %s WHERE sincronizacao <> ?";
+
+    private static final String SQL_MATRICULAS_DETALHADAS =
+        "SELECT m.codigo_matricula, m.discente_id, ds.nome, ds.curso, m.disciplina_id, dc.nome, dc.curso, m.data_matricula " +
+        "FROM matriculas m " +
+        "LEFT JOIN catalogo_discentes ds ON ds.id = m.discente_id " +
+        "LEFT JOIN catalogo_disciplinas dc ON dc.id = m.disciplina_id " +
+        "WHERE m.discente_id = ? ORDER BY m.id";
+
+    private static final String SQL_RESERVAS_DETALHADAS =
+        "SELECT r.discente_id, r.livro_id, l.titulo, l.autor, r.data_reserva " +
+        "FROM matriculas m " +
+        "JOIN reservas_livros r ON r.discente_id = m.discente_id " +
+        "LEFT JOIN catalogo_livros l ON l.id = r.livro_id " +
+        "WHERE m.codigo_matricula = ? ORDER BY r.id";
+
+    private static final String SQL_VAGAS_DISPONIVEIS =
+        "SELECT d.id, GREATEST(COALESCE(d.vagas, 0) - COUNT(m.id), 0) FROM catalogo_disciplinas d " +
+        "LEFT JOIN matriculas m ON m.disciplina_id = d.id " +
+        "WHERE d.id IN (%s) GROUP BY d.id, d.vagas";
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    private static final int LIMITE_IDS_POR_CONSULTA = 512;
+
+    private interface Vinculador<T> {
+        void vincular(PreparedStatement stmt, T item, long sincronizacao) throws SQLException;
+    }
+
+    public CatalogoRepositoryImpl(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+        databaseConnection.registrarInstrucoes(CatalogoRepositoryImpl.class);
+    }
+
+    @Override
+    public boolean sincronizarDiscentes(List<Discente> discentes) {
+        return sincronizar("catalogo_discentes", SQL_UPSERT_DISCENTE, discentes, (stmt, discente, sincronizacao) -> {
+            stmt.setLong(1, discente.getId());
+            stmt.setString(2, discente.getNome());
+            stmt.setString(3, discente.getCurso());
+            stmt.setString(4, discente.getModalidade());
+            stmt.setString(5, discente.getSituacaoAcademica() != null ? discente.getSituacaoAcademica().name() : null);
+            stmt.setLong(6, sincronizacao);
+        }, Discente::getId);
+    }
+
+    @Override
+    public boolean sincronizarDisciplinas(List<Disciplina> disciplinas) {
+        return sincronizar("catalogo_disciplinas", SQL_UPSERT_DISCIPLINA, disciplinas, (stmt, disciplina, sincronizacao) -> {
+            stmt.setLong(1, disciplina.getId());
+            stmt.setString(2, disciplina.getNome());
+            stmt.setString(3, disciplina.getCurso());
+            if (disciplina.getVagas() != null) {
+                stmt.setInt(4, disciplina.getVagas());
+            } else {
+                stmt.setNull(4, Types.INTEGER);
+            }
+            stmt.setLong(5, sincronizacao);
+        }, Disciplina::getId);
+    }
+
+    @Override
+    public boolean sincronizarLivros(List<Livro> livros) {
+        return sincronizar("catalogo_livros", SQL_UPSERT_LIVRO, livros, (stmt, livro, sincronizacao) -> {
+            stmt.setLong(1, livro.getId());
+            stmt.setString(2, livro.getTitulo());
+            stmt.setString(3, livro.getAutor());
+            if (livro.getAno() != null) {
+                stmt.setInt(4, livro.getAno());
+            } else {
+                stmt.setNull(4, Types.INTEGER);
+            }
+            stmt.setString(5, livro.getStatusDisponibilidade() != null ? livro.getStatusDisponibilidade().name() : null);
+            stmt.setLong(6, sincronizacao);
+        }, Livro::getId);
+    }
+
+    private <T> boolean sincronizar(String tabela, String sqlUpsert, List<T> itens, Vinculador<T> vinculador,
+                                    Function<T, Long> id) {
+        long sincronizacao = System.currentTimeMillis();
+
+        try (Connection conn = databaseConnection.getConnection();
+             TransacaoJdbc transacao = TransacaoJdbc.iniciar(conn)) {
+
+            try (PreparedStatement stmt = conn.prepareStatement(sqlUpsert)) {
+                int pendentes = 0;
+                for (T item : itens) {
+                    if (item == null || id.apply(item) == null) {
+                        continue;
+                    }
+                    vinculador.vincular(stmt, item, sincronizacao);
+                    stmt.addBatch();
+                    if (++pendentes == TAMANHO_LOTE) {
+                        stmt.executeBatch();
+                        pendentes = 0;
+                    }
+                }
+                if (pendentes > 0) {
+                    stmt.executeBatch();
+                }
+            }
+
+            int removidos;
+            try (PreparedStatement stmt = conn.prepareStatement(String.format(SQL_REMOVER_AUSENTES, tabela))) {
+                stmt.setLong(1, sincronizacao);
+                removidos = stmt.executeUpdate();
+            }
+
+            transacao.confirmar();
+            Logger.debug("[CatalogoRepository] " + tabela + " sincronizada: " + itens.size() +
+                " registros, " + removidos + " removidos");
+            return true;
+
+        } catch (SQLException e) {
+            Logger.erro("[CatalogoRepository] Erro ao sincronizar " + tabela + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public List<MatriculaDetalhada> listarMatriculasDetalhadas(Long discenteId) {
+        try (Connection conn = databaseConnection.getConnectionLeitura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_MATRICULAS_DETALHADAS)) {
+
+            stmt.setLong(1, discenteId);
+
+            List<MatriculaDetalhada> matriculas = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    matriculas.add(new MatriculaDetalhada(
+                        rs.getString(1),
+                        rs.getLong(2),
+                        rs.getString(3),
+                        rs.getString(4),
+                        rs.getLong(5),
+                        rs.getString(6),
+                        rs.getString(7),
+                        rs.getDate(8).toLocalDate()));
+                }
+            }
+            return matriculas;
+
+        } catch (SQLException e) {
+            Logger.erro("[CatalogoRepository] Erro ao listar matrículas detalhadas: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public List<ReservaDetalhada> listarReservasDetalhadas(String codigoMatricula) {
+        try (Connection conn = databaseConnection.getConnectionLeitura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_RESERVAS_DETALHADAS)) {
+
+            stmt.setString(1, codigoMatricula);
+
+            List<ReservaDetalhada> reservas = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    reservas.add(new ReservaDetalhada(
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        rs.getString(3),
+                        rs.getString(4),
+                        rs.getDate(5).toLocalDate()));
+                }
+            }
+            return reservas;
+
+        } catch (SQLException e) {
+            Logger.erro("[CatalogoRepository] Erro ao listar reservas detalhadas: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public Map<Long, Integer> calcularVagasDisponiveis(Collection<Long> disciplinaIds) {
+        Map<Long, Integer> vagas = new HashMap<>();
+        if (disciplinaIds == null || disciplinaIds.isEmpty()) {
+            return vagas;
+        }
+
+        List<Long> ids = new ArrayList<>(disciplinaIds);
+
+        try (Connection conn = databaseConnection.getConnectionLeitura()) {
+            for (int inicio = 0; inicio < ids.size(); inicio += LIMITE_IDS_POR_CONSULTA) {
+                List<Long> lote = ids.subList(inicio, Math.min(inicio + LIMITE_IDS_POR_CONSULTA, ids.size()));
+                calcularLote(conn, lote, vagas);
+            }
+            return vagas;
+
+        } catch (SQLException e) {
+            Logger.erro("[CatalogoRepository] Erro ao calcular vagas: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void calcularLote(Connection conn, List<Long> lote, Map<Long, Integer> vagas) throws SQLException {
+        // Arredonda a quantidade de parâmetros para potência de 2 para reaproveitar o cache de statements
+        int parametros = 1;
+        while (parametros < lote.size()) {
+            parametros <<= 1;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(parametros, "?"));
+
+        try (PreparedStatement stmt = conn.prepareStatement(String.format(SQL_VAGAS_DISPONIVEIS, placeholders))) {
+            for (int i = 0; i < parametros; i++) {
+                stmt.setLong(i + 1, lote.get(Math.min(i, lote.size() - 1)));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    vagas.put(rs.getLong(1), rs.getInt(2));
+                }
+            }
+        }
+    }
+}
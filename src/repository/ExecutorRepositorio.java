@@ -0,0 +1,97 @@
+package repository;
+
+import util.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+public final class ExecutorRepositorio implements AutoCloseable {
+
+    private static final long TEMPO_ENCERRAMENTO_MS = 5_000;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permissoes;
+    private final int concorrenciaMaxima;
+    private final BooleanSupplier executarNaChamadora;
+
+    public ExecutorRepositorio(int concorrenciaMaxima, BooleanSupplier executarNaChamadora) {
+        if (concorrenciaMaxima < 1) {
+            throw new IllegalArgumentException("Concorrência máxima deve ser positiva: " + concorrenciaMaxima);
+        }
+        this.concorrenciaMaxima = concorrenciaMaxima;
+        this.permissoes = new Semaphore(concorrenciaMaxima, true);
+        this.executarNaChamadora = executarNaChamadora;
+    }
+
+    public <T> CompletableFuture<T> submeter(Supplier<T> operacao) {
+        // A conexão da unidade de trabalho fica presa à thread chamadora
+        if (executarNaChamadora.getAsBoolean()) {
+            try {
+                return CompletableFuture.completedFuture(operacao.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> executarLimitado(operacao), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Executor de repositório encerrado", e));
+        }
+    }
+
+    private <T> T executarLimitado(Supplier<T> operacao) {
+        try {
+            permissoes.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+
+        try {
+            return operacao.get();
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    public static <T> T aguardar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public int getConcorrenciaMaxima() {
+        return concorrenciaMaxima;
+    }
+
+    public int getEmExecucao() {
+        return concorrenciaMaxima - permissoes.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(TEMPO_ENCERRAMENTO_MS, TimeUnit.MILLISECONDS)) {
+                Logger.aviso("[ExecutorRepositorio] Operações assíncronas ainda em andamento no encerramento.");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
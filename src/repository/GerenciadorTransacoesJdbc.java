@@ -0,0 +1,92 @@
+package repository;
+
+import util.DatabaseConnection;
+import util.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class GerenciadorTransacoesJdbc implements IGerenciadorTransacoes {
+
+    private final DatabaseConnection databaseConnection;
+
+    public GerenciadorTransacoesJdbc(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+    }
+
+    @Override
+    public IUnidadeDeTrabalho iniciar() {
+        if (databaseConnection.possuiConexaoVinculada()) {
+            return new UnidadeParticipante();
+        }
+
+        Connection conn = databaseConnection.getConnection();
+        if (conn == null) {
+            Logger.erro("[GerenciadorTransacoes] Falha ao obter conexão para a unidade de trabalho.");
+            return new UnidadeParticipante();
+        }
+
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            Logger.erro("[GerenciadorTransacoes] Falha ao iniciar transação: " + e.getMessage());
+            DatabaseConnection.fecharRecursos(conn);
+            return new UnidadeParticipante();
+        }
+
+        databaseConnection.vincularConexao(conn);
+        return new UnidadeJdbc(conn);
+    }
+
+    private final class UnidadeJdbc implements IUnidadeDeTrabalho {
+        private final Connection conn;
+        private boolean concluida;
+
+        private UnidadeJdbc(Connection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        public boolean confirmar() {
+            if (concluida) {
+                return true;
+            }
+
+            try {
+                conn.commit();
+                concluida = true;
+                return true;
+            } catch (SQLException e) {
+                Logger.erro("[GerenciadorTransacoes] Falha ao confirmar transação: " + e.getMessage());
+                return false;
+            }
+        }
+
+        @Override
+        public void close() {
+            databaseConnection.desvincularConexao();
+            try {
+                if (!concluida) {
+                    conn.rollback();
+                }
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                Logger.erro("[GerenciadorTransacoes] Falha ao encerrar transação: " + e.getMessage());
+            } finally {
+                DatabaseConnection.fecharRecursos(conn);
+            }
+        }
+    }
+
+    private static final class UnidadeParticipante implements IUnidadeDeTrabalho {
+
+        @Override
+        public boolean confirmar() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
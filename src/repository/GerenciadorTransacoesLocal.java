@@ -0,0 +1,31 @@
+package repository;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+public class GerenciadorTransacoesLocal implements IGerenciadorTransacoes {
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    @Override
+    public IUnidadeDeTrabalho iniciar() {
+        lock.lock();
+        return new UnidadeLocal();
+    }
+
+    private final class UnidadeLocal implements IUnidadeDeTrabalho {
+        private boolean encerrada;
+
+        @Override
+        public boolean confirmar() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            if (!encerrada) {
+                encerrada = true;
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package repository;
+
+import model.Discente;
+import model.Disciplina;
+import model.Livro;
+import model.MatriculaDetalhada;
+import model.ReservaDetalhada;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ICatalogoRepository {
+
+    boolean sincronizarDiscentes(List<Discente> discentes);
+
+    boolean sincronizarDisciplinas(List<Disciplina> disciplinas);
+
+    boolean sincronizarLivros(List<Livro> livros);
+
+    List<MatriculaDetalhada> listarMatriculasDetalhadas(Long discenteId);
+
+    List<ReservaDetalhada> listarReservasDetalhadas(String codigoMatricula);
+
+    Map<Long, Integer> calcularVagasDisponiveis(Collection<Long> disciplinaIds);
+}
@@ -0,0 +1,6 @@
+package repository;
+
+public interface IGerenciadorTransacoes {
+
+    IUnidadeDeTrabalho iniciar();
+}
@@ -1,23 +1,81 @@
 package repository;
 
+import model.EstadoMatricula;
 import model.Matricula;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface IMatriculaRepository {
 
     boolean adicionar(Matricula matricula);
 
-    boolean remover(String discenteId, String disciplinaId);
+    ResultadoInsercao adicionarComVaga(Matricula matricula, int vagasOfertadas);
+
+    List<ResultadoInsercao> adicionarEmLote(List<Matricula> matriculas);
+
+    boolean remover(Long discenteId, Long disciplinaId);
 
     boolean removerPorCodigo(String codigoMatricula);
 
-    List<Matricula> listarPorDiscente(String discenteId);
+    List<Matricula> listarPorDiscente(Long discenteId);
+
+    Pagina<Matricula> listarPorDiscente(Long discenteId, Integer aposId, int tamanho);
+
+    Pagina<Matricula> listarPorDisciplina(Long disciplinaId, Integer aposId, int tamanho);
+
+    Pagina<Matricula> listarPorSemestre(int ano, int semestre, Integer aposId, int tamanho);
+
+    int arquivarSemestre(int ano, int semestre);
+
+    Stream<Matricula> streamTodas();
+
+    int contarMatriculasPorDiscente(Long discenteId);
+
+    int contarMatriculasPorDisciplina(Long disciplinaId);
 
-    int contarMatriculasPorDiscente(String discenteId);
+    Map<Long, Integer> contarMatriculasPorDisciplinas(Collection<Long> disciplinaIds);
 
-    int contarMatriculasPorDisciplina(String disciplinaId);
+    boolean existeMatricula(Long discenteId, Long disciplinaId);
 
-    boolean existeMatricula(String discenteId, String disciplinaId);
+    EstadoMatricula consultarEstadoMatricula(Long discenteId, Long disciplinaId);
 
     Matricula buscarPorCodigo(String codigoMatricula);
+
+    default boolean remover(String discenteId, String disciplinaId) {
+        return remover(id(discenteId), id(disciplinaId));
+    }
+
+    default List<Matricula> listarPorDiscente(String discenteId) {
+        return listarPorDiscente(id(discenteId));
+    }
+
+    default Pagina<Matricula> listarPorDiscente(String discenteId, Integer aposId, int tamanho) {
+        return listarPorDiscente(id(discenteId), aposId, tamanho);
+    }
+
+    default Pagina<Matricula> listarPorDisciplina(String disciplinaId, Integer aposId, int tamanho) {
+        return listarPorDisciplina(id(disciplinaId), aposId, tamanho);
+    }
+
+    default int contarMatriculasPorDiscente(String discenteId) {
+        return contarMatriculasPorDiscente(id(discenteId));
+    }
+
+    default int contarMatriculasPorDisciplina(String disciplinaId) {
+        return contarMatriculasPorDisciplina(id(disciplinaId));
+    }
+
+    default boolean existeMatricula(String discenteId, String disciplinaId) {
+        return existeMatricula(id(discenteId), id(disciplinaId));
+    }
+
+    default EstadoMatricula consultarEstadoMatricula(String discenteId, String disciplinaId) {
+        return consultarEstadoMatricula(id(discenteId), id(disciplinaId));
+    }
+
+    private static Long id(String valor) {
+        return Long.valueOf(valor.trim());
+    }
 }
@@ -2,16 +2,52 @@ package repository;
 
 import model.ReservaLivro;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface IReservaRepository {
 
     boolean adicionar(ReservaLivro reserva);
 
-    boolean remover(String discenteId, String livroId);
+    ResultadoInsercao reservar(ReservaLivro reserva);
 
-    List<ReservaLivro> listarPorDiscente(String discenteId);
+    List<ResultadoInsercao> adicionarEmLote(List<ReservaLivro> reservas);
 
-    boolean livroEstaReservado(String livroId);
+    boolean remover(Long discenteId, Long livroId);
 
-    boolean existeReserva(String discenteId, String livroId);
+    List<ReservaLivro> listarPorDiscente(Long discenteId);
+
+    Pagina<ReservaLivro> listarPorDiscente(Long discenteId, Integer aposId, int tamanho);
+
+    Stream<ReservaLivro> streamTodas();
+
+    boolean livroEstaReservado(Long livroId);
+
+    Set<Long> listarLivrosReservados();
+
+    boolean existeReserva(Long discenteId, Long livroId);
+
+    default boolean remover(String discenteId, String livroId) {
+        return remover(id(discenteId), id(livroId));
+    }
+
+    default List<ReservaLivro> listarPorDiscente(String discenteId) {
+        return listarPorDiscente(id(discenteId));
+    }
+
+    default Pagina<ReservaLivro> listarPorDiscente(String discenteId, Integer aposId, int tamanho) {
+        return listarPorDiscente(id(discenteId), aposId, tamanho);
+    }
+
+    default boolean livroEstaReservado(String livroId) {
+        return livroEstaReservado(id(livroId));
+    }
+
+    default boolean existeReserva(String discenteId, String livroId) {
+        return existeReserva(id(discenteId), id(livroId));
+    }
+
+    private static Long id(String valor) {
+        return Long.valueOf(valor.trim());
+    }
 }
@@ -0,0 +1,9 @@
+package repository;
+
+public interface IUnidadeDeTrabalho extends AutoCloseable {
+
+    boolean confirmar();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,43 @@
+package repository;
+
+import util.MapaLongInt;
+
+import java.util.Arrays;
+
+final class IndiceDenso {
+
+    static final int AUSENTE = -1;
+
+    private final MapaLongInt indices = new MapaLongInt();
+    private long[] ids = new long[16];
+    private int tamanho;
+
+    int indice(long id) {
+        int indice = indices.obter(id, AUSENTE);
+        if (indice != AUSENTE) {
+            return indice;
+        }
+        if (tamanho == ids.length) {
+            ids = Arrays.copyOf(ids, tamanho * 2);
+        }
+        ids[tamanho] = id;
+        indices.definir(id, tamanho);
+        return tamanho++;
+    }
+
+    int buscar(Long id) {
+        return id != null ? indices.obter(id, AUSENTE) : AUSENTE;
+    }
+
+    long id(int indice) {
+        return ids[indice];
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    static long par(int primeiro, int segundo) {
+        return ((long) primeiro << 32) | (segundo & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,353 @@
+package repository;
+
+import util.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+public class LogRegistros implements AutoCloseable {
+
+    public enum PoliticaFsync {
+        SEMPRE,
+        PERIODICA,
+        NUNCA
+    }
+
+    @FunctionalInterface
+    public interface LeitorRegistro {
+        void ler(byte tipo, byte[] conteudo) throws IOException;
+    }
+
+    public static final class Registro {
+        private final byte tipo;
+        private final byte[] conteudo;
+
+        public Registro(byte tipo, byte[] conteudo) {
+            this.tipo = tipo;
+            this.conteudo = conteudo;
+        }
+
+        public byte getTipo() {
+            return tipo;
+        }
+
+        public byte[] getConteudo() {
+            return conteudo;
+        }
+    }
+
+    private static final int MAGICO = 0x41434C47;
+    public static final byte VERSAO = 2;
+    private static final int TAMANHO_CABECALHO = 5;
+    private static final int TAMANHO_MOLDURA = 4 + 1 + 4;
+
+    private final Path arquivo;
+    private final PoliticaFsync politica;
+    private final ScheduledExecutorService sincronizador;
+    private FileChannel canal;
+    private byte versaoArquivo;
+    private long registros;
+    private boolean pendenteSincronizacao;
+    private boolean encerrado;
+
+    public LogRegistros(Path arquivo, PoliticaFsync politica, long intervaloFsyncMs) throws IOException {
+        this.arquivo = arquivo;
+        this.politica = politica;
+
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        abrir();
+
+        if (politica == PoliticaFsync.PERIODICA) {
+            this.sincronizador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "LogRegistros-Fsync-" + arquivo.getFileName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.sincronizador.scheduleWithFixedDelay(this::sincronizarPendente,
+                intervaloFsyncMs, intervaloFsyncMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.sincronizador = null;
+        }
+    }
+
+    private void abrir() throws IOException {
+        canal = FileChannel.open(arquivo,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (canal.size() == 0) {
+            escreverCabecalho(canal);
+            canal.force(true);
+            versaoArquivo = VERSAO;
+        } else {
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+            canal.read(cabecalho, 0);
+            cabecalho.flip();
+            if (cabecalho.remaining() < TAMANHO_CABECALHO || cabecalho.getInt() != MAGICO) {
+                canal.close();
+                throw new IOException("Arquivo de log inválido: " + arquivo);
+            }
+            versaoArquivo = cabecalho.get();
+            if (versaoArquivo < 1 || versaoArquivo > VERSAO) {
+                canal.close();
+                throw new IOException("Versão de log incompatível (" + versaoArquivo + "): " + arquivo);
+            }
+        }
+
+        canal.position(canal.size());
+    }
+
+    private static void escreverCabecalho(FileChannel canal) throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+        cabecalho.putInt(MAGICO).put(VERSAO).flip();
+        while (cabecalho.hasRemaining()) {
+            canal.write(cabecalho, 0);
+        }
+        canal.position(TAMANHO_CABECALHO);
+    }
+
+    public synchronized void reproduzir(LeitorRegistro leitor) throws IOException {
+        long tamanho = canal.size();
+        long ultimaPosicaoValida = TAMANHO_CABECALHO;
+        registros = 0;
+
+        if (tamanho > TAMANHO_CABECALHO) {
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanho);
+            mapa.position(TAMANHO_CABECALHO);
+            CRC32 crc = new CRC32();
+
+            while (mapa.remaining() >= TAMANHO_MOLDURA) {
+                int tamanhoConteudo = mapa.getInt();
+                // Em long: um tamanho corrompido perto de Integer.MAX_VALUE não pode estourar a comparação
+                if (tamanhoConteudo < 0 || (long) tamanhoConteudo + 5 > mapa.remaining()) {
+                    break;
+                }
+
+                byte tipo = mapa.get();
+                byte[] conteudo = new byte[tamanhoConteudo];
+                mapa.get(conteudo);
+                int checksum = mapa.getInt();
+
+                crc.reset();
+                crc.update(tipo);
+                crc.update(conteudo);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                leitor.ler(tipo, conteudo);
+                registros++;
+                ultimaPosicaoValida = mapa.position();
+            }
+        }
+
+        if (ultimaPosicaoValida < tamanho) {
+            Logger.aviso("[LogRegistros] Descartando " + (tamanho - ultimaPosicaoValida) +
+                " bytes incompletos no fim de " + arquivo.getFileName());
+            canal.truncate(ultimaPosicaoValida);
+            canal.force(true);
+        }
+
+        canal.position(ultimaPosicaoValida);
+    }
+
+    public synchronized void anexar(byte tipo, byte[] conteudo) throws IOException {
+        FileChannel destino = canalAberto();
+        long inicio = destino.position();
+        try {
+            escrever(destino, tipo, conteudo);
+        } catch (IOException e) {
+            desfazerEscrita(destino, inicio);
+            throw e;
+        }
+        registros++;
+        sincronizar();
+    }
+
+    public synchronized void anexarTodos(List<Registro> novos) throws IOException {
+        if (novos.isEmpty()) {
+            return;
+        }
+
+        long tamanhoTotal = 0;
+        for (Registro registro : novos) {
+            tamanhoTotal += TAMANHO_MOLDURA + registro.conteudo.length;
+        }
+        if (tamanhoTotal > Integer.MAX_VALUE - 8) {
+            throw new IOException("Lote de " + novos.size() + " registros excede o tamanho máximo (" +
+                tamanhoTotal + " bytes): " + arquivo.getFileName());
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) tamanhoTotal);
+        for (Registro registro : novos) {
+            emoldurar(buffer, registro.tipo, registro.conteudo);
+        }
+        buffer.flip();
+        FileChannel destino = canalAberto();
+        long inicio = destino.position();
+        try {
+            while (buffer.hasRemaining()) {
+                destino.write(buffer);
+            }
+        } catch (IOException e) {
+            desfazerEscrita(destino, inicio);
+            throw e;
+        }
+
+        registros += novos.size();
+        sincronizar();
+    }
+
+    // Uma moldura parcial no meio do arquivo faria reproduzir() descartar tudo o que viesse depois dela
+    private void desfazerEscrita(FileChannel destino, long inicio) {
+        try {
+            destino.truncate(inicio);
+            destino.position(inicio);
+        } catch (IOException e) {
+            // Sem como voltar ao fim válido, fecha: canalAberto() reabre e reposiciona no fim do arquivo
+            Logger.erro("[LogRegistros] Falha ao descartar escrita parcial em " + arquivo.getFileName() +
+                ": " + e.getMessage());
+            try {
+                destino.close();
+            } catch (IOException ignorada) {
+                // o canal já está inutilizável
+            }
+        }
+    }
+
+    private FileChannel canalAberto() throws IOException {
+        // Uma compactação que falhou ao reabrir o arquivo não deve inutilizar o log até reiniciar
+        if (!canal.isOpen() && !encerrado) {
+            abrir();
+        }
+        return canal;
+    }
+
+    public synchronized void compactar(Iterable<Registro> vivos) throws IOException {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".compactando");
+        long totalVivos = 0;
+
+        try (FileChannel novo = FileChannel.open(temporario,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            escreverCabecalho(novo);
+            for (Registro registro : vivos) {
+                escrever(novo, registro.tipo, registro.conteudo);
+                totalVivos++;
+            }
+            novo.force(true);
+        }
+
+        long registrosAnteriores = registros;
+        canal.close();
+        try {
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // O arquivo original continua intacto: reabre para que anexar() siga funcionando
+            Files.deleteIfExists(temporario);
+            abrir();
+            throw e;
+        }
+        abrir();
+        sincronizarDiretorio();
+        registros = totalVivos;
+        pendenteSincronizacao = false;
+
+        Logger.debug("[LogRegistros] " + arquivo.getFileName() + " compactado: " +
+            registrosAnteriores + " -> " + totalVivos + " registros");
+    }
+
+    // Sem o fsync do diretório, a troca de nome do ATOMIC_MOVE pode não sobreviver a uma queda de energia
+    private void sincronizarDiretorio() {
+        Path diretorio = arquivo.toAbsolutePath().getParent();
+        if (diretorio == null) {
+            return;
+        }
+        try (FileChannel canalDiretorio = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canalDiretorio.force(true);
+        } catch (IOException e) {
+            // Alguns sistemas (ex.: Windows) não permitem abrir diretórios como canal
+            Logger.debug("[LogRegistros] fsync do diretório " + diretorio + " indisponível: " + e.getMessage());
+        }
+    }
+
+    public synchronized byte getVersaoArquivo() {
+        return versaoArquivo;
+    }
+
+    public synchronized long getRegistros() {
+        return registros;
+    }
+
+    public synchronized long getTamanhoBytes() throws IOException {
+        return canal.size();
+    }
+
+    private static void escrever(FileChannel destino, byte tipo, byte[] conteudo) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_MOLDURA + conteudo.length);
+        emoldurar(buffer, tipo, conteudo);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+    }
+
+    private static void emoldurar(ByteBuffer buffer, byte tipo, byte[] conteudo) {
+        CRC32 crc = new CRC32();
+        crc.update(tipo);
+        crc.update(conteudo);
+
+        buffer.putInt(conteudo.length);
+        buffer.put(tipo);
+        buffer.put(conteudo);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    private void sincronizar() throws IOException {
+        switch (politica) {
+            case SEMPRE:
+                canal.force(false);
+                break;
+            case PERIODICA:
+                pendenteSincronizacao = true;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private synchronized void sincronizarPendente() {
+        if (!pendenteSincronizacao || !canal.isOpen()) {
+            return;
+        }
+        try {
+            canal.force(false);
+            pendenteSincronizacao = false;
+        } catch (IOException e) {
+            Logger.erro("[LogRegistros] Falha no fsync de " + arquivo.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        encerrado = true;
+        if (sincronizador != null) {
+            sincronizador.shutdownNow();
+        }
+        if (canal.isOpen()) {
+            canal.force(true);
+            canal.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package repository;
+
+import model.EstadoMatricula;
+import model.Matricula;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class MatriculaRepositoryAssincrono {
+
+    private final IMatriculaRepository repositorio;
+    private final ExecutorRepositorio executor;
+
+    public MatriculaRepositoryAssincrono(IMatriculaRepository repositorio, ExecutorRepositorio executor) {
+        this.repositorio = repositorio;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Boolean> adicionar(Matricula matricula) {
+        return executor.submeter(() -> repositorio.adicionar(matricula));
+    }
+
+    public CompletableFuture<ResultadoInsercao> adicionarComVaga(Matricula matricula, int vagasOfertadas) {
+        return executor.submeter(() -> repositorio.adicionarComVaga(matricula, vagasOfertadas));
+    }
+
+    public CompletableFuture<List<ResultadoInsercao>> adicionarEmLote(List<Matricula> matriculas) {
+        return executor.submeter(() -> repositorio.adicionarEmLote(matriculas));
+    }
+
+    public CompletableFuture<Boolean> remover(Long discenteId, Long disciplinaId) {
+        return executor.submeter(() -> repositorio.remover(discenteId, disciplinaId));
+    }
+
+    public CompletableFuture<Boolean> removerPorCodigo(String codigoMatricula) {
+        return executor.submeter(() -> repositorio.removerPorCodigo(codigoMatricula));
+    }
+
+    public CompletableFuture<List<Matricula>> listarPorDiscente(Long discenteId) {
+        return executor.submeter(() -> repositorio.listarPorDiscente(discenteId));
+    }
+
+    public CompletableFuture<Pagina<Matricula>> listarPorDiscente(Long discenteId, Integer aposId, int tamanho) {
+        return executor.submeter(() -> repositorio.listarPorDiscente(discenteId, aposId, tamanho));
+    }
+
+    public CompletableFuture<Pagina<Matricula>> listarPorDisciplina(Long disciplinaId, Integer aposId, int tamanho) {
+        return executor.submeter(() -> repositorio.listarPorDisciplina(disciplinaId, aposId, tamanho));
+    }
+
+    public CompletableFuture<Pagina<Matricula>> listarPorSemestre(int ano, int semestre, Integer aposId, int tamanho) {
+        return executor.submeter(() -> repositorio.listarPorSemestre(ano, semestre, aposId, tamanho));
+    }
+
+    public CompletableFuture<Integer> arquivarSemestre(int ano, int semestre) {
+        return executor.submeter(() -> repositorio.arquivarSemestre(ano, semestre));
+    }
+
+    public CompletableFuture<Integer> contarMatriculasPorDiscente(Long discenteId) {
+        return executor.submeter(() -> repositorio.contarMatriculasPorDiscente(discenteId));
+    }
+
+    public CompletableFuture<Integer> contarMatriculasPorDisciplina(Long disciplinaId) {
+        return executor.submeter(() -> repositorio.contarMatriculasPorDisciplina(disciplinaId));
+    }
+
+    public CompletableFuture<Map<Long, Integer>> contarMatriculasPorDisciplinas(Collection<Long> disciplinaIds) {
+        return executor.submeter(() -> repositorio.contarMatriculasPorDisciplinas(disciplinaIds));
+    }
+
+    public CompletableFuture<Boolean> existeMatricula(Long discenteId, Long disciplinaId) {
+        return executor.submeter(() -> repositorio.existeMatricula(discenteId, disciplinaId));
+    }
+
+    public CompletableFuture<EstadoMatricula> consultarEstadoMatricula(Long discenteId, Long disciplinaId) {
+        return executor.submeter(() -> repositorio.consultarEstadoMatricula(discenteId, disciplinaId));
+    }
+
+    public CompletableFuture<Matricula> buscarPorCodigo(String codigoMatricula) {
+        return executor.submeter(() -> repositorio.buscarPorCodigo(codigoMatricula));
+    }
+}
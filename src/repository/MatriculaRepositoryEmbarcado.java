@@ -0,0 +1,145 @@
+package repository;
+
+import model.Matricula;
+import util.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class MatriculaRepositoryEmbarcado extends MatriculaRepositoryMemoria implements AutoCloseable {
+
+    private static final byte TIPO_INSERCAO = 1;
+    private static final byte TIPO_REMOCAO = 2;
+    private static final byte TIPO_ARQUIVAMENTO = 3;
+    private static final long LIMITE_MINIMO_COMPACTACAO = 10_000;
+    private static final long SEM_DATA = Long.MIN_VALUE;
+
+    private final Path diretorio;
+    private final LogRegistros log;
+
+    public MatriculaRepositoryEmbarcado(Path diretorio, LogRegistros.PoliticaFsync politica, long intervaloFsyncMs) throws IOException {
+        this.diretorio = diretorio;
+        this.log = new LogRegistros(diretorio.resolve("matriculas.log"), politica, intervaloFsyncMs);
+        this.log.reproduzir(this::aplicar);
+        if (log.getVersaoArquivo() < LogRegistros.VERSAO) {
+            Logger.info("[MatriculaRepositoryEmbarcado] Convertendo matriculas.log para a versão " + LogRegistros.VERSAO);
+            compactar();
+        }
+        Logger.debug("[MatriculaRepositoryEmbarcado] " + totalVivas() + " matrículas carregadas de " +
+            log.getRegistros() + " registros.");
+    }
+
+    private void aplicar(byte tipo, byte[] conteudo) throws IOException {
+        DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(conteudo));
+        if (tipo == TIPO_INSERCAO) {
+            int id = entrada.readInt();
+            String codigo = entrada.readUTF();
+            long discenteId = lerId(entrada);
+            long disciplinaId = lerId(entrada);
+            long dia = entrada.readLong();
+            indexar(Matricula.doBanco(id, codigo, discenteId, disciplinaId, dia == SEM_DATA ? null : LocalDate.ofEpochDay(dia)));
+        } else if (tipo == TIPO_REMOCAO) {
+            desindexarPorCodigo(entrada.readUTF());
+        } else if (tipo == TIPO_ARQUIVAMENTO) {
+            desindexarSemestre(entrada.readInt());
+        } else {
+            throw new IOException("Tipo de registro desconhecido: " + tipo);
+        }
+    }
+
+    private long lerId(DataInputStream entrada) throws IOException {
+        // Versão 1 do log gravava os ids como texto
+        return log.getVersaoArquivo() == 1 ? Long.parseLong(entrada.readUTF()) : entrada.readLong();
+    }
+
+    private static byte[] codificarInsercao(Matricula matricula) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream saida = new DataOutputStream(bytes);
+        saida.writeInt(matricula.getId());
+        saida.writeUTF(matricula.getCodigoMatricula());
+        saida.writeLong(matricula.getDiscenteId());
+        saida.writeLong(matricula.getDisciplinaId());
+        saida.writeLong(matricula.getDataMatricula() != null ? matricula.getDataMatricula().toEpochDay() : SEM_DATA);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] codificarRemocao(String codigoMatricula) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        new DataOutputStream(bytes).writeUTF(codigoMatricula);
+        return bytes.toByteArray();
+    }
+
+    private static List<LogRegistros.Registro> registrosDeInsercao(List<Matricula> matriculas) throws IOException {
+        List<LogRegistros.Registro> registros = new ArrayList<>(matriculas.size());
+        for (Matricula matricula : matriculas) {
+            registros.add(new LogRegistros.Registro(TIPO_INSERCAO, codificarInsercao(matricula)));
+        }
+        return registros;
+    }
+
+    @Override
+    protected void registrarInsercoes(List<Matricula> registros) throws IOException {
+        if (registros.size() == 1) {
+            log.anexar(TIPO_INSERCAO, codificarInsercao(registros.get(0)));
+        } else {
+            log.anexarTodos(registrosDeInsercao(registros));
+        }
+    }
+
+    @Override
+    protected void registrarRemocao(Matricula registro) throws IOException {
+        log.anexar(TIPO_REMOCAO, codificarRemocao(registro.getCodigoMatricula()));
+    }
+
+    @Override
+    protected void registrarArquivamento(int chaveSemestre, List<Matricula> registros) throws IOException {
+        // O arquivo do semestre é gravado e sincronizado antes do registro que remove as matrículas do log principal
+        try (LogRegistros arquivo = new LogRegistros(diretorio.resolve("matriculas_arquivo_" + chaveSemestre + ".log"),
+                LogRegistros.PoliticaFsync.SEMPRE, 0)) {
+            arquivo.reproduzir((tipo, conteudo) -> { });
+            arquivo.anexarTodos(registrosDeInsercao(registros));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4);
+        new DataOutputStream(bytes).writeInt(chaveSemestre);
+        log.anexar(TIPO_ARQUIVAMENTO, bytes.toByteArray());
+    }
+
+    @Override
+    protected void aposAlteracao() {
+        long registros = log.getRegistros();
+        if (registros >= LIMITE_MINIMO_COMPACTACAO && registros >= 2L * totalVivas()) {
+            compactar();
+        }
+    }
+
+    public void compactar() {
+        lock.writeLock().lock();
+        try {
+            log.compactar(registrosDeInsercao(listarVivas()));
+        } catch (IOException e) {
+            Logger.erro("[MatriculaRepositoryEmbarcado] Falha ao compactar log: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            log.close();
+        } catch (IOException e) {
+            Logger.erro("[MatriculaRepositoryEmbarcado] Erro ao fechar log: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package repository;
 
+import exception.LeituraRepositorioException;
+import model.EstadoMatricula;
 import model.Matricula;
 import util.DatabaseConnection;
+import util.GeradorMatricula;
 import util.Logger;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class MatriculaRepositoryImpl implements IMatriculaRepository {
 
@@ -22,35 +32,153 @@ public class MatriculaRepositoryImpl implements IMatriculaRepository {
         "DELETE FROM matriculas WHERE codigo_matricula = ?";
 
     private static final String SQL_SELECT_BY_DISCENTE =
-        "SELECT id, codigo_matricula, discente_id, disciplina_id, data_matricula FROM matriculas WHERE discente_id = ?";
+        "SELECT j.id, j.codigo_matricula, r.discente_id, j.disciplina_id, j.data_matricula " +
+        "FROM resumo_matriculas_discente r, JSON_TABLE(r.matriculas, '$[*]' COLUMNS (" +
+        "id INT PATH '$.id', codigo_matricula VARCHAR(20) PATH '$.codigo', " +
+        "disciplina_id BIGINT PATH '$.disciplina', data_matricula DATE PATH '$.data')) j " +
+        "WHERE r.discente_id = ? ORDER BY j.id";
+
+    private static final String SQL_SELECT_PAGINA_BY_DISCENTE =
+        "SELECT id, codigo_matricula, discente_id, disciplina_id, data_matricula FROM matriculas " +
+        "WHERE discente_id = ? AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String SQL_SELECT_PAGINA_BY_DISCIPLINA =
+        "SELECT id, codigo_matricula, discente_id, disciplina_id, data_matricula FROM matriculas " +
+        "WHERE disciplina_id = ? AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String SQL_SELECT_PAGINA_BY_SEMESTRE =
+        "SELECT id, codigo_matricula, discente_id, disciplina_id, data_matricula FROM matriculas " +
+        "WHERE semestre = ? AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String SQL_SELECT_ALL =
+        "SELECT id, codigo_matricula, discente_id, disciplina_id, data_matricula FROM matriculas ORDER BY id";
+
+    private static final int TAMANHO_MAXIMO_PAGINA = 1000;
 
     private static final String SQL_COUNT_BY_DISCENTE =
-        "SELECT COUNT(*) FROM matriculas WHERE discente_id = ?";
+        "SELECT total FROM resumo_matriculas_discente WHERE discente_id = ?";
 
     private static final String SQL_COUNT_BY_DISCIPLINA =
         "SELECT COUNT(*) FROM matriculas WHERE disciplina_id = ?";
 
+    private static final String SQL_COUNT_BY_DISCIPLINAS =
+        "SELECT disciplina_id, COUNT(*) FROM matriculas WHERE disciplina_id IN (%s) GROUP BY disciplina_id";
+
+    private static final int LIMITE_IDS_POR_CONSULTA = 512;
+
     private static final String SQL_EXISTS =
         "SELECT COUNT(*) FROM matriculas WHERE discente_id = ? AND disciplina_id = ?";
 
+    private static final String SQL_ESTADO_MATRICULA =
+        "SELECT COALESCE((SELECT total FROM resumo_matriculas_discente WHERE discente_id = ?), 0), " +
+        "(SELECT COUNT(*) FROM matriculas WHERE disciplina_id = ?), " +
+        "EXISTS (SELECT 1 FROM matriculas WHERE discente_id = ? AND disciplina_id = ?)";
+
+    private static final String SQL_ESTADO_MATRICULA_FOR_UPDATE =
+        "SELECT (SELECT total FROM resumo_matriculas_discente WHERE discente_id = ? FOR UPDATE), " +
+        "(SELECT COUNT(*) FROM matriculas WHERE disciplina_id = ?), " +
+        "EXISTS (SELECT 1 FROM matriculas WHERE discente_id = ? AND disciplina_id = ?)";
+
     private static final String SQL_SELECT_BY_CODIGO =
         "SELECT id, codigo_matricula, discente_id, disciplina_id, data_matricula FROM matriculas WHERE codigo_matricula = ?";
 
+    private static final String SQL_SELECT_EXISTENTES_LOTE =
+        "SELECT codigo_matricula, discente_id, disciplina_id FROM matriculas " +
+        "WHERE codigo_matricula IN (%s) OR (discente_id, disciplina_id) IN (%s)";
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    private static final String SQL_SELECT_CHAVES_FOR_UPDATE =
+        "SELECT discente_id, disciplina_id FROM matriculas WHERE codigo_matricula = ? FOR UPDATE";
+
+    private static final String SQL_RESUMO_BLOQUEAR =
+        "INSERT INTO resumo_matriculas_discente (discente_id, total, matriculas) VALUES (?, 0, JSON_ARRAY()) " +
+        "ON DUPLICATE KEY UPDATE total = total";
+
+    private static final String SQL_RESUMO_RECALCULAR =
+        "INSERT INTO resumo_matriculas_discente (discente_id, total, matriculas) " +
+        "SELECT * FROM (SELECT ? AS discente_id, COUNT(*) AS total, " +
+        "COALESCE(JSON_ARRAYAGG(JSON_OBJECT('id', id, 'codigo', codigo_matricula, " +
+        "'disciplina', disciplina_id, 'data', data_matricula)), JSON_ARRAY()) AS matriculas " +
+        "FROM matriculas WHERE discente_id = ?) AS novo " +
+        "ON DUPLICATE KEY UPDATE total = novo.total, matriculas = novo.matriculas";
+
+    private static final String SQL_RESUMO_RECALCULAR_ARQUIVADAS =
+        "INSERT INTO resumo_matriculas_discente (discente_id, total, matriculas) " +
+        "SELECT * FROM (SELECT a.discente_id, COUNT(m.id) AS total, " +
+        "IF(COUNT(m.id) = 0, JSON_ARRAY(), JSON_ARRAYAGG(JSON_OBJECT('id', m.id, 'codigo', m.codigo_matricula, " +
+        "'disciplina', m.disciplina_id, 'data', m.data_matricula))) AS matriculas " +
+        "FROM (SELECT DISTINCT discente_id FROM %s WHERE semestre = ?) a " +
+        "LEFT JOIN matriculas m ON m.discente_id = a.discente_id GROUP BY a.discente_id) AS novo " +
+        "ON DUPLICATE KEY UPDATE total = novo.total, matriculas = novo.matriculas";
+
+    private static final String SQL_VAGAS_INICIALIZAR =
+        "INSERT INTO vagas_disciplinas (disciplina_id, vagas_ofertadas, vagas_restantes) " +
+        "SELECT ?, ?, GREATEST(? - COUNT(*), 0) FROM matriculas WHERE disciplina_id = ? " +
+        "ON DUPLICATE KEY UPDATE vagas_restantes = vagas_restantes";
+
+    private static final String SQL_VAGAS_DECREMENTAR =
+        "UPDATE vagas_disciplinas SET vagas_restantes = vagas_restantes + (? - vagas_ofertadas) - 1, " +
+        "vagas_ofertadas = ? WHERE disciplina_id = ? AND vagas_restantes + (? - vagas_ofertadas) > 0";
+
+    private static final String SQL_VAGAS_CONSUMIR =
+        "UPDATE vagas_disciplinas SET vagas_restantes = GREATEST(vagas_restantes - 1, 0) WHERE disciplina_id = ?";
+
+    private static final String SQL_VAGAS_CONSUMIR_LOTE =
+        "UPDATE vagas_disciplinas SET vagas_restantes = GREATEST(vagas_restantes - ?, 0) WHERE disciplina_id = ?";
+
+    private static final String SQL_VAGAS_DEVOLVER =
+        "UPDATE vagas_disciplinas SET vagas_restantes = LEAST(vagas_restantes + 1, vagas_ofertadas) WHERE disciplina_id = ?";
+
+    private static final String SQL_PARTICAO_SEMESTRE =
+        "SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'matriculas' AND PARTITION_NAME = ?";
+
+    private static final String SQL_CONTAR_PARTICAO =
+        "SELECT COUNT(*), COALESCE(SUM(semestre <> ?), 0) FROM matriculas PARTITION (%s)";
+
+    private static final String SQL_TABELA_EXISTE =
+        "SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+
+    private static final String SQL_ARQUIVO_CRIAR =
+        "CREATE TABLE IF NOT EXISTS %s LIKE matriculas";
+
+    private static final String SQL_ARQUIVO_REMOVER_PARTICOES =
+        "ALTER TABLE %s REMOVE PARTITIONING";
+
+    private static final String SQL_TROCAR_PARTICAO =
+        "ALTER TABLE matriculas EXCHANGE PARTITION %s WITH TABLE %s";
+
+    private static final String SQL_DESCARTAR_PARTICAO =
+        "ALTER TABLE matriculas DROP PARTITION %s";
+
+    private static final String SQL_COPIAR_SEMESTRE =
+        "INSERT INTO %s (id, codigo_matricula, discente_id, disciplina_id, data_matricula, created_at) " +
+        "SELECT id, codigo_matricula, discente_id, disciplina_id, data_matricula, created_at FROM matriculas WHERE semestre = ?";
+
+    private static final String SQL_DELETE_BY_SEMESTRE =
+        "DELETE FROM matriculas WHERE semestre = ?";
+
+    private static final String SQL_VAGAS_REINICIAR_ARQUIVADAS =
+        "DELETE FROM vagas_disciplinas WHERE disciplina_id IN (SELECT disciplina_id FROM %s WHERE semestre = ?)";
+
     public MatriculaRepositoryImpl(DatabaseConnection databaseConnection) {
         this.databaseConnection = databaseConnection;
+        databaseConnection.registrarInstrucoes(MatriculaRepositoryImpl.class);
     }
 
     @Override
     public boolean adicionar(Matricula matricula) {
         try (Connection conn = databaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
+             TransacaoJdbc transacao = TransacaoJdbc.iniciar(conn)) {
 
-            stmt.setString(1, matricula.getCodigoMatricula());
-            stmt.setString(2, matricula.getDiscenteId());
-            stmt.setString(3, matricula.getDisciplinaId());
-            stmt.setDate(4, Date.valueOf(matricula.getDataMatricula()));
+            bloquearResumo(conn, matricula.getDiscenteId());
+            inserir(conn, matricula);
+            consumirVagaSemLimite(conn, matricula.getDisciplinaId());
+            recalcularResumo(conn, matricula.getDiscenteId());
 
-            return stmt.executeUpdate() > 0;
+            transacao.confirmar();
+            return true;
 
         } catch (SQLException e) {
             if (e.getErrorCode() == 1062) {
@@ -63,18 +191,268 @@ public class MatriculaRepositoryImpl implements IMatriculaRepository {
     }
 
     @Override
-    public boolean remover(String discenteId, String disciplinaId) {
+    public ResultadoInsercao adicionarComVaga(Matricula matricula, int vagasOfertadas) {
+        try (Connection conn = databaseConnection.getConnection();
+             TransacaoJdbc transacao = TransacaoJdbc.iniciar(conn)) {
+
+            bloquearResumo(conn, matricula.getDiscenteId());
+
+            if (!reservarVaga(conn, matricula.getDisciplinaId(), vagasOfertadas)) {
+                Logger.debug("[MatriculaRepository] Disciplina " + matricula.getDisciplinaId() + " sem vagas");
+                return ResultadoInsercao.SEM_VAGAS;
+            }
+
+            inserir(conn, matricula);
+            recalcularResumo(conn, matricula.getDiscenteId());
+
+            transacao.confirmar();
+            return ResultadoInsercao.INSERIDO;
+
+        } catch (SQLException e) {
+            if (e.getErrorCode() == 1062) {
+                Logger.debug("[MatriculaRepository] Matrícula duplicada");
+                return ResultadoInsercao.DUPLICADO;
+            }
+            if (e.getErrorCode() == 1213 || e.getErrorCode() == 1205) {
+                Logger.aviso("[MatriculaRepository] Matrícula concorrente abortada: " + e.getMessage());
+                return ResultadoInsercao.CONFLITO;
+            }
+            Logger.erro("[MatriculaRepository] Erro SQL: " + e.getMessage());
+            return ResultadoInsercao.ERRO;
+        }
+    }
+
+    @Override
+    public List<ResultadoInsercao> adicionarEmLote(List<Matricula> matriculas) {
+        List<ResultadoInsercao> resultados = new ArrayList<>(Collections.nCopies(matriculas.size(), ResultadoInsercao.ERRO));
+        if (matriculas.isEmpty()) {
+            return resultados;
+        }
+
+        Set<String> codigosVistos = new HashSet<>();
+        Set<String> paresVistos = new HashSet<>();
+
+        try (Connection conn = databaseConnection.getConnection()) {
+            for (int inicio = 0; inicio < matriculas.size(); inicio += TAMANHO_LOTE) {
+                int fim = Math.min(inicio + TAMANHO_LOTE, matriculas.size());
+                inserirLote(conn, matriculas, inicio, fim, resultados, codigosVistos, paresVistos);
+            }
+
+        } catch (SQLException e) {
+            Logger.erro("[MatriculaRepository] Erro ao inserir lote: " + e.getMessage());
+        }
+
+        return resultados;
+    }
+
+    private void inserirLote(Connection conn, List<Matricula> matriculas, int inicio, int fim,
+                             List<ResultadoInsercao> resultados,
+                             Set<String> codigosVistos, Set<String> paresVistos) throws SQLException {
+
+        carregarExistentes(conn, matriculas.subList(inicio, fim), codigosVistos, paresVistos);
+
+        List<Integer> pendentes = new ArrayList<>();
+        for (int i = inicio; i < fim; i++) {
+            Matricula matricula = matriculas.get(i);
+            String par = matricula.getDiscenteId() + "|" + matricula.getDisciplinaId();
+            if (!codigosVistos.contains(matricula.getCodigoMatricula()) && !paresVistos.contains(par)) {
+                codigosVistos.add(matricula.getCodigoMatricula());
+                paresVistos.add(par);
+                pendentes.add(i);
+            } else {
+                resultados.set(i, ResultadoInsercao.DUPLICADO);
+            }
+        }
+
+        if (pendentes.isEmpty()) {
+            return;
+        }
+
+        try (TransacaoJdbc transacao = TransacaoJdbc.iniciar(conn);
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
+
+            Map<Long, Integer> vagasConsumidas = new HashMap<>();
+            Set<Long> discentes = new HashSet<>();
+            for (int indice : pendentes) {
+                Matricula matricula = matriculas.get(indice);
+                stmt.setString(1, matricula.getCodigoMatricula());
+                stmt.setLong(2, matricula.getDiscenteId());
+                stmt.setLong(3, matricula.getDisciplinaId());
+                stmt.setDate(4, Date.valueOf(matricula.getDataMatricula()));
+                stmt.addBatch();
+                vagasConsumidas.merge(matricula.getDisciplinaId(), 1, Integer::sum);
+                discentes.add(matricula.getDiscenteId());
+            }
+            stmt.executeBatch();
+
+            try (PreparedStatement vagas = conn.prepareStatement(SQL_VAGAS_CONSUMIR_LOTE)) {
+                for (Map.Entry<Long, Integer> entrada : vagasConsumidas.entrySet()) {
+                    vagas.setInt(1, entrada.getValue());
+                    vagas.setLong(2, entrada.getKey());
+                    vagas.addBatch();
+                }
+                vagas.executeBatch();
+            }
+
+            recalcularResumos(conn, discentes);
+
+            transacao.confirmar();
+            for (int indice : pendentes) {
+                resultados.set(indice, ResultadoInsercao.INSERIDO);
+            }
+            return;
+
+        } catch (BatchUpdateException e) {
+            Logger.debug("[MatriculaRepository] Lote rejeitado, inserindo individualmente: " + e.getMessage());
+        }
+
+        for (int indice : pendentes) {
+            resultados.set(indice, inserirIndividualmente(conn, matriculas.get(indice)));
+        }
+    }
+
+    private void carregarExistentes(Connection conn, List<Matricula> lote,
+                                    Set<String> codigos, Set<String> pares) throws SQLException {
+        String placeholdersCodigo = String.join(", ", Collections.nCopies(lote.size(), "?"));
+        String placeholdersPar = String.join(", ", Collections.nCopies(lote.size(), "(?, ?)"));
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                String.format(SQL_SELECT_EXISTENTES_LOTE, placeholdersCodigo, placeholdersPar))) {
+
+            int parametro = 1;
+            for (Matricula matricula : lote) {
+                stmt.setString(parametro++, matricula.getCodigoMatricula());
+            }
+            for (Matricula matricula : lote) {
+                stmt.setLong(parametro++, matricula.getDiscenteId());
+                stmt.setLong(parametro++, matricula.getDisciplinaId());
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    codigos.add(rs.getString(1));
+                    pares.add(rs.getLong(2) + "|" + rs.getLong(3));
+                }
+            }
+        }
+    }
+
+    private ResultadoInsercao inserirIndividualmente(Connection conn, Matricula matricula) {
+        try (TransacaoJdbc transacao = TransacaoJdbc.iniciar(conn)) {
+            bloquearResumo(conn, matricula.getDiscenteId());
+            inserir(conn, matricula);
+            consumirVagaSemLimite(conn, matricula.getDisciplinaId());
+            recalcularResumo(conn, matricula.getDiscenteId());
+            transacao.confirmar();
+            return ResultadoInsercao.INSERIDO;
+
+        } catch (SQLException e) {
+            if (e.getErrorCode() == 1062) {
+                return ResultadoInsercao.DUPLICADO;
+            }
+            Logger.erro("[MatriculaRepository] Erro ao inserir " + matricula.getCodigoMatricula() + ": " + e.getMessage());
+            return ResultadoInsercao.ERRO;
+        }
+    }
+
+    private void inserir(Connection conn, Matricula matricula) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
+            stmt.setString(1, matricula.getCodigoMatricula());
+            stmt.setLong(2, matricula.getDiscenteId());
+            stmt.setLong(3, matricula.getDisciplinaId());
+            stmt.setDate(4, Date.valueOf(matricula.getDataMatricula()));
+            stmt.executeUpdate();
+        }
+    }
+
+    private boolean reservarVaga(Connection conn, Long disciplinaId, int vagasOfertadas) throws SQLException {
+        if (decrementarVaga(conn, disciplinaId, vagasOfertadas)) {
+            return true;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_VAGAS_INICIALIZAR)) {
+            stmt.setLong(1, disciplinaId);
+            stmt.setInt(2, vagasOfertadas);
+            stmt.setInt(3, vagasOfertadas);
+            stmt.setLong(4, disciplinaId);
+            stmt.executeUpdate();
+        }
+
+        return decrementarVaga(conn, disciplinaId, vagasOfertadas);
+    }
+
+    private boolean decrementarVaga(Connection conn, Long disciplinaId, int vagasOfertadas) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_VAGAS_DECREMENTAR)) {
+            stmt.setInt(1, vagasOfertadas);
+            stmt.setInt(2, vagasOfertadas);
+            stmt.setLong(3, disciplinaId);
+            stmt.setInt(4, vagasOfertadas);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    private void consumirVagaSemLimite(Connection conn, Long disciplinaId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_VAGAS_CONSUMIR)) {
+            stmt.setLong(1, disciplinaId);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void devolverVaga(Connection conn, Long disciplinaId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_VAGAS_DEVOLVER)) {
+            stmt.setLong(1, disciplinaId);
+            stmt.executeUpdate();
+        }
+    }
+
+    // Trava a linha de resumo do discente antes de tocar em matriculas, serializando escritas do mesmo discente
+    private void bloquearResumo(Connection conn, Long discenteId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_RESUMO_BLOQUEAR)) {
+            stmt.setLong(1, discenteId);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void recalcularResumo(Connection conn, Long discenteId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_RESUMO_RECALCULAR)) {
+            stmt.setLong(1, discenteId);
+            stmt.setLong(2, discenteId);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void recalcularResumos(Connection conn, Collection<Long> discenteIds) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_RESUMO_RECALCULAR)) {
+            for (Long discenteId : discenteIds) {
+                stmt.setLong(1, discenteId);
+                stmt.setLong(2, discenteId);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    @Override
+    public boolean remover(Long discenteId, Long disciplinaId) {
         try (Connection conn = databaseConnection.getConnection();
+             TransacaoJdbc transacao = TransacaoJdbc.iniciar(conn);
              PreparedStatement stmt = conn.prepareStatement(SQL_DELETE)) {
 
-            stmt.setString(1, discenteId);
-            stmt.setString(2, disciplinaId);
+            bloquearResumo(conn, discenteId);
+
+            stmt.setLong(1, discenteId);
+            stmt.setLong(2, disciplinaId);
 
             int rowsAffected = stmt.executeUpdate();
             if (rowsAffected == 0) {
                 System.err.println("[MatriculaRepository] Matrícula não encontrada");
+                return false;
             }
-            return rowsAffected > 0;
+
+            devolverVaga(conn, disciplinaId);
+            recalcularResumo(conn, discenteId);
+            transacao.confirmar();
+            return true;
 
         } catch (SQLException e) {
             System.err.println("[MatriculaRepository] Erro ao remover: " + e.getMessage());
@@ -85,15 +463,36 @@ public class MatriculaRepositoryImpl implements IMatriculaRepository {
     @Override
     public boolean removerPorCodigo(String codigoMatricula) {
         try (Connection conn = databaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SQL_DELETE_BY_CODIGO)) {
-
-            stmt.setString(1, codigoMatricula);
+             TransacaoJdbc transacao = TransacaoJdbc.iniciar(conn)) {
+
+            Long discenteId = null;
+            Long disciplinaId = null;
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_CHAVES_FOR_UPDATE)) {
+                stmt.setString(1, codigoMatricula);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        discenteId = rs.getLong(1);
+                        disciplinaId = rs.getLong(2);
+                    }
+                }
+            }
 
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected == 0) {
+            if (disciplinaId == null) {
                 Logger.debug("[MatriculaRepository] Matrícula não encontrada");
+                return false;
             }
-            return rowsAffected > 0;
+
+            bloquearResumo(conn, discenteId);
+
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_DELETE_BY_CODIGO)) {
+                stmt.setString(1, codigoMatricula);
+                stmt.executeUpdate();
+            }
+
+            devolverVaga(conn, disciplinaId);
+            recalcularResumo(conn, discenteId);
+            transacao.confirmar();
+            return true;
 
         } catch (SQLException e) {
             Logger.erro("[MatriculaRepository] Erro ao remover: " + e.getMessage());
@@ -102,33 +501,26 @@ public class MatriculaRepositoryImpl implements IMatriculaRepository {
     }
 
     @Override
-    public List<Matricula> listarPorDiscente(String discenteId) {
+    public List<Matricula> listarPorDiscente(Long discenteId) {
         List<Matricula> matriculas = new ArrayList<>();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
 
         try {
-            conn = databaseConnection.getConnection();
+            conn = databaseConnection.getConnectionLeitura();
             if (conn == null) {
                 Logger.erro("[MatriculaRepository] Falha ao obter conexão com o banco.");
                 return matriculas;
             }
 
             stmt = conn.prepareStatement(SQL_SELECT_BY_DISCENTE);
-            stmt.setString(1, discenteId);
+            stmt.setLong(1, discenteId);
 
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Matricula matricula = Matricula.doBanco(
-                    rs.getInt("id"),
-                    rs.getString("codigo_matricula"),
-                    rs.getString("discente_id"),
-                    rs.getString("disciplina_id"),
-                    rs.getDate("data_matricula").toLocalDate()
-                );
-                matriculas.add(matricula);
+                matriculas.add(mapearMatricula(rs));
             }
 
         } catch (SQLException e) {
@@ -142,11 +534,197 @@ public class MatriculaRepositoryImpl implements IMatriculaRepository {
     }
 
     @Override
-    public int contarMatriculasPorDiscente(String discenteId) {
-        try (Connection conn = databaseConnection.getConnection();
+    public Pagina<Matricula> listarPorDiscente(Long discenteId, Integer aposId, int tamanho) {
+        return listarPagina(SQL_SELECT_PAGINA_BY_DISCENTE, discenteId, aposId, tamanho);
+    }
+
+    @Override
+    public Pagina<Matricula> listarPorDisciplina(Long disciplinaId, Integer aposId, int tamanho) {
+        return listarPagina(SQL_SELECT_PAGINA_BY_DISCIPLINA, disciplinaId, aposId, tamanho);
+    }
+
+    @Override
+    public Pagina<Matricula> listarPorSemestre(int ano, int semestre, Integer aposId, int tamanho) {
+        return listarPagina(SQL_SELECT_PAGINA_BY_SEMESTRE, (long) GeradorMatricula.chaveSemestre(ano, semestre), aposId, tamanho);
+    }
+
+    @Override
+    public int arquivarSemestre(int ano, int semestre) {
+        int chaveSemestre = GeradorMatricula.chaveSemestre(ano, semestre);
+        String particao = "p" + chaveSemestre;
+        String tabelaArquivo = "matriculas_arquivo_" + chaveSemestre;
+
+        // DDL confirma implicitamente a transação corrente, então não pode participar de uma unidade de trabalho
+        if (databaseConnection.possuiConexaoVinculada()) {
+            Logger.erro("[MatriculaRepository] Arquivamento de semestre não pode rodar dentro de uma unidade de trabalho.");
+            return -1;
+        }
+
+        try (Connection conn = databaseConnection.getConnectionDedicada()) {
+            if (conn == null) {
+                Logger.erro("[MatriculaRepository] Falha ao obter conexão com o banco.");
+                return -1;
+            }
+
+            int arquivadas = contarParticaoExclusiva(conn, particao, chaveSemestre);
+            if (arquivadas >= 0 && !tabelaExiste(conn, tabelaArquivo)) {
+                trocarParticao(conn, particao, tabelaArquivo, chaveSemestre);
+            } else {
+                arquivadas = copiarSemestre(conn, chaveSemestre, tabelaArquivo);
+            }
+
+            Logger.info("[MatriculaRepository] " + arquivadas + " matrículas do semestre " + chaveSemestre +
+                " arquivadas em " + tabelaArquivo);
+            return arquivadas;
+
+        } catch (SQLException e) {
+            Logger.erro("[MatriculaRepository] Erro ao arquivar semestre " + chaveSemestre + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private int contarParticaoExclusiva(Connection conn, String particao, int chaveSemestre) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_PARTICAO_SEMESTRE)) {
+            stmt.setString(1, particao);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || !String.valueOf(chaveSemestre + 1).equals(rs.getString(1))) {
+                    return -1;
+                }
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(String.format(SQL_CONTAR_PARTICAO, particao))) {
+            stmt.setInt(1, chaveSemestre);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getLong(2) == 0 ? rs.getInt(1) : -1;
+            }
+        }
+    }
+
+    private boolean tabelaExiste(Connection conn, String tabela) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_TABELA_EXISTE)) {
+            stmt.setString(1, tabela);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    private void trocarParticao(Connection conn, String particao, String tabelaArquivo, int chaveSemestre) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(String.format(SQL_ARQUIVO_CRIAR, tabelaArquivo));
+            stmt.execute(String.format(SQL_ARQUIVO_REMOVER_PARTICOES, tabelaArquivo));
+            stmt.execute(String.format(SQL_TROCAR_PARTICAO, particao, tabelaArquivo));
+            stmt.execute(String.format(SQL_DESCARTAR_PARTICAO, particao));
+        }
+
+        try (TransacaoJdbc transacao = TransacaoJdbc.iniciar(conn)) {
+            reconciliarArquivamento(conn, tabelaArquivo, chaveSemestre);
+            transacao.confirmar();
+        }
+    }
+
+    private int copiarSemestre(Connection conn, int chaveSemestre, String tabelaArquivo) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(String.format(SQL_ARQUIVO_CRIAR, tabelaArquivo));
+        }
+
+        try (TransacaoJdbc transacao = TransacaoJdbc.iniciar(conn)) {
+            try (PreparedStatement stmt = conn.prepareStatement(String.format(SQL_COPIAR_SEMESTRE, tabelaArquivo))) {
+                stmt.setInt(1, chaveSemestre);
+                stmt.executeUpdate();
+            }
+
+            int arquivadas;
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_DELETE_BY_SEMESTRE)) {
+                stmt.setInt(1, chaveSemestre);
+                arquivadas = stmt.executeUpdate();
+            }
+
+            reconciliarArquivamento(conn, tabelaArquivo, chaveSemestre);
+            transacao.confirmar();
+            return arquivadas;
+        }
+    }
+
+    private void reconciliarArquivamento(Connection conn, String tabelaArquivo, int chaveSemestre) throws SQLException {
+        // O saldo é recalculado a partir das matrículas restantes na próxima matrícula da disciplina
+        try (PreparedStatement stmt = conn.prepareStatement(String.format(SQL_VAGAS_REINICIAR_ARQUIVADAS, tabelaArquivo))) {
+            stmt.setInt(1, chaveSemestre);
+            stmt.executeUpdate();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(String.format(SQL_RESUMO_RECALCULAR_ARQUIVADAS, tabelaArquivo))) {
+            stmt.setInt(1, chaveSemestre);
+            stmt.executeUpdate();
+        }
+    }
+
+    private Pagina<Matricula> listarPagina(String sql, Long filtro, Integer aposId, int tamanho) {
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        List<Matricula> matriculas = new ArrayList<>(limite + 1);
+
+        try (Connection conn = databaseConnection.getConnectionLeitura();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, filtro);
+            stmt.setInt(2, aposId != null ? aposId : 0);
+            stmt.setInt(3, limite + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    matriculas.add(mapearMatricula(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            Logger.erro("[MatriculaRepository] Erro ao listar página de matrículas: " + e.getMessage());
+        }
+
+        if (matriculas.size() > limite) {
+            matriculas.remove(limite);
+            return new Pagina<>(matriculas, matriculas.get(limite - 1).getId());
+        }
+        return new Pagina<>(matriculas, null);
+    }
+
+    @Override
+    public Stream<Matricula> streamTodas() {
+        Connection conn = databaseConnection.getConnectionDedicada();
+        if (conn == null) {
+            throw new LeituraRepositorioException("Falha ao obter conexão com o banco.", null);
+        }
+
+        PreparedStatement stmt = null;
+        try {
+            stmt = conn.prepareStatement(SQL_SELECT_ALL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Fetch size Integer.MIN_VALUE: o Connector/J entrega as linhas uma a uma, sem materializar o resultado
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            ResultSet rs = stmt.executeQuery();
+            return ResultSetStream.criar(rs, MatriculaRepositoryImpl::mapearMatricula, rs, stmt, conn);
+
+        } catch (SQLException e) {
+            DatabaseConnection.fecharRecursos(stmt, conn);
+            throw new LeituraRepositorioException("Erro ao percorrer matrículas: " + e.getMessage(), e);
+        }
+    }
+
+    private static Matricula mapearMatricula(ResultSet rs) throws SQLException {
+        return Matricula.doBanco(
+            rs.getInt("id"),
+            rs.getString("codigo_matricula"),
+            rs.getLong("discente_id"),
+            rs.getLong("disciplina_id"),
+            rs.getDate("data_matricula").toLocalDate()
+        );
+    }
+
+    @Override
+    public int contarMatriculasPorDiscente(Long discenteId) {
+        try (Connection conn = databaseConnection.getConnectionLeitura();
              PreparedStatement stmt = conn.prepareStatement(SQL_COUNT_BY_DISCENTE)) {
 
-            stmt.setString(1, discenteId);
+            stmt.setLong(1, discenteId);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -162,11 +740,11 @@ public class MatriculaRepositoryImpl implements IMatriculaRepository {
     }
 
     @Override
-    public int contarMatriculasPorDisciplina(String disciplinaId) {
-        try (Connection conn = databaseConnection.getConnection();
+    public int contarMatriculasPorDisciplina(Long disciplinaId) {
+        try (Connection conn = databaseConnection.getConnectionLeitura();
              PreparedStatement stmt = conn.prepareStatement(SQL_COUNT_BY_DISCIPLINA)) {
 
-            stmt.setString(1, disciplinaId);
+            stmt.setLong(1, disciplinaId);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -182,12 +760,55 @@ public class MatriculaRepositoryImpl implements IMatriculaRepository {
     }
 
     @Override
-    public boolean existeMatricula(String discenteId, String disciplinaId) {
+    public Map<Long, Integer> contarMatriculasPorDisciplinas(Collection<Long> disciplinaIds) {
+        Map<Long, Integer> contagens = new HashMap<>();
+        if (disciplinaIds == null || disciplinaIds.isEmpty()) {
+            return contagens;
+        }
+
+        List<Long> ids = new ArrayList<>(disciplinaIds);
+
+        try (Connection conn = databaseConnection.getConnectionLeitura()) {
+            for (int inicio = 0; inicio < ids.size(); inicio += LIMITE_IDS_POR_CONSULTA) {
+                List<Long> lote = ids.subList(inicio, Math.min(inicio + LIMITE_IDS_POR_CONSULTA, ids.size()));
+                contarLote(conn, lote, contagens);
+            }
+
+        } catch (SQLException e) {
+            Logger.erro("[MatriculaRepository] Erro ao contar por disciplinas: " + e.getMessage());
+        }
+
+        return contagens;
+    }
+
+    private void contarLote(Connection conn, List<Long> lote, Map<Long, Integer> contagens) throws SQLException {
+        // Arredonda a quantidade de parâmetros para potência de 2 para reaproveitar o cache de statements
+        int parametros = 1;
+        while (parametros < lote.size()) {
+            parametros <<= 1;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(parametros, "?"));
+
+        try (PreparedStatement stmt = conn.prepareStatement(String.format(SQL_COUNT_BY_DISCIPLINAS, placeholders))) {
+            for (int i = 0; i < parametros; i++) {
+                stmt.setLong(i + 1, lote.get(Math.min(i, lote.size() - 1)));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    contagens.put(rs.getLong(1), rs.getInt(2));
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean existeMatricula(Long discenteId, Long disciplinaId) {
         try (Connection conn = databaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SQL_EXISTS)) {
 
-            stmt.setString(1, discenteId);
-            stmt.setString(2, disciplinaId);
+            stmt.setLong(1, discenteId);
+            stmt.setLong(2, disciplinaId);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 return rs.next() && rs.getInt(1) > 0;
@@ -199,6 +820,41 @@ public class MatriculaRepositoryImpl implements IMatriculaRepository {
         }
     }
 
+    @Override
+    public EstadoMatricula consultarEstadoMatricula(Long discenteId, Long disciplinaId) {
+        try (Connection conn = databaseConnection.getConnection()) {
+            boolean emTransacao = !conn.getAutoCommit();
+            if (emTransacao) {
+                // FOR UPDATE numa linha inexistente só trava o gap, e o upsert seguinte de outro discente
+                // no mesmo gap termina em deadlock: o upsert garante a linha antes da leitura travada
+                bloquearResumo(conn, discenteId);
+            }
+            return consultarEstado(conn, emTransacao ? SQL_ESTADO_MATRICULA_FOR_UPDATE : SQL_ESTADO_MATRICULA,
+                discenteId, disciplinaId);
+
+        } catch (SQLException e) {
+            Logger.erro("[MatriculaRepository] Erro ao consultar estado: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private EstadoMatricula consultarEstado(Connection conn, String sql, Long discenteId, Long disciplinaId)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, discenteId);
+            stmt.setLong(2, disciplinaId);
+            stmt.setLong(3, discenteId);
+            stmt.setLong(4, disciplinaId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new EstadoMatricula(rs.getInt(1), rs.getInt(2), rs.getBoolean(3));
+                }
+            }
+            return new EstadoMatricula(0, 0, false);
+        }
+    }
+
     @Override
     public Matricula buscarPorCodigo(String codigoMatricula) {
         try (Connection conn = databaseConnection.getConnection();
@@ -208,13 +864,7 @@ public class MatriculaRepositoryImpl implements IMatriculaRepository {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return Matricula.doBanco(
-                        rs.getInt("id"),
-                        rs.getString("codigo_matricula"),
-                        rs.getString("discente_id"),
-                        rs.getString("disciplina_id"),
-                        rs.getDate("data_matricula").toLocalDate()
-                    );
+                    return mapearMatricula(rs);
                 }
             }
             return null;
@@ -0,0 +1,466 @@
+package repository;
+
+import model.EstadoMatricula;
+import model.Matricula;
+import util.GeradorMatricula;
+import util.Logger;
+import util.MapaLongInt;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+public class MatriculaRepositoryMemoria implements IMatriculaRepository {
+
+    private static final int TAMANHO_MAXIMO_PAGINA = 1000;
+
+    protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final IndiceDenso discentes = new IndiceDenso();
+    private final IndiceDenso disciplinas = new IndiceDenso();
+    private final Map<String, Matricula> porCodigo = new HashMap<>();
+    private final MapaLongInt idPorDiscenteDisciplina = new MapaLongInt();
+    private final List<TreeMap<Integer, Matricula>> porDiscente = new ArrayList<>();
+    private final List<TreeMap<Integer, Matricula>> porDisciplina = new ArrayList<>();
+    private final Map<Integer, TreeMap<Integer, Matricula>> porSemestre = new HashMap<>();
+    private int[] contagemPorDiscente = new int[16];
+    private int[] contagemPorDisciplina = new int[16];
+    private int ultimoId;
+
+    protected void registrarInsercoes(List<Matricula> registros) throws IOException {
+    }
+
+    protected void registrarRemocao(Matricula registro) throws IOException {
+    }
+
+    protected void registrarArquivamento(int chaveSemestre, List<Matricula> registros) throws IOException {
+    }
+
+    protected void aposAlteracao() {
+    }
+
+    protected final void indexar(Matricula matricula) {
+        int discente = discentes.indice(matricula.getDiscenteId());
+        int disciplina = disciplinas.indice(matricula.getDisciplinaId());
+
+        porCodigo.put(matricula.getCodigoMatricula(), matricula);
+        idPorDiscenteDisciplina.definir(IndiceDenso.par(discente, disciplina), matricula.getId());
+        grupo(porDiscente, discente).put(matricula.getId(), matricula);
+        grupo(porDisciplina, disciplina).put(matricula.getId(), matricula);
+        porSemestre.computeIfAbsent(GeradorMatricula.extrairChaveSemestre(matricula.getCodigoMatricula()), s -> new TreeMap<>())
+            .put(matricula.getId(), matricula);
+
+        contagemPorDiscente = garantirCapacidade(contagemPorDiscente, discente);
+        contagemPorDisciplina = garantirCapacidade(contagemPorDisciplina, disciplina);
+        contagemPorDiscente[discente]++;
+        contagemPorDisciplina[disciplina]++;
+
+        ultimoId = Math.max(ultimoId, matricula.getId());
+    }
+
+    protected final void desindexarPorCodigo(String codigoMatricula) {
+        Matricula matricula = porCodigo.remove(codigoMatricula);
+        if (matricula == null) {
+            return;
+        }
+
+        int discente = discentes.buscar(matricula.getDiscenteId());
+        int disciplina = disciplinas.buscar(matricula.getDisciplinaId());
+
+        idPorDiscenteDisciplina.remover(IndiceDenso.par(discente, disciplina));
+        porDiscente.get(discente).remove(matricula.getId());
+        porDisciplina.get(disciplina).remove(matricula.getId());
+        contagemPorDiscente[discente]--;
+        contagemPorDisciplina[disciplina]--;
+
+        int chaveSemestre = GeradorMatricula.extrairChaveSemestre(codigoMatricula);
+        TreeMap<Integer, Matricula> semestre = porSemestre.get(chaveSemestre);
+        semestre.remove(matricula.getId());
+        if (semestre.isEmpty()) {
+            porSemestre.remove(chaveSemestre);
+        }
+    }
+
+    protected final List<Matricula> desindexarSemestre(int chaveSemestre) {
+        TreeMap<Integer, Matricula> semestre = porSemestre.get(chaveSemestre);
+        if (semestre == null) {
+            return new ArrayList<>();
+        }
+
+        List<Matricula> removidas = new ArrayList<>(semestre.values());
+        for (Matricula matricula : removidas) {
+            desindexarPorCodigo(matricula.getCodigoMatricula());
+        }
+        return removidas;
+    }
+
+    protected final List<Matricula> listarVivas() {
+        List<Matricula> vivas = new ArrayList<>(porCodigo.values());
+        vivas.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+        return vivas;
+    }
+
+    protected final int totalVivas() {
+        return porCodigo.size();
+    }
+
+    private static TreeMap<Integer, Matricula> grupo(List<TreeMap<Integer, Matricula>> grupos, int indice) {
+        while (grupos.size() <= indice) {
+            grupos.add(new TreeMap<>());
+        }
+        return grupos.get(indice);
+    }
+
+    private static int[] garantirCapacidade(int[] contagens, int indice) {
+        if (indice < contagens.length) {
+            return contagens;
+        }
+        return Arrays.copyOf(contagens, Math.max(indice + 1, contagens.length * 2));
+    }
+
+    private static Matricula copiar(Matricula matricula) {
+        return Matricula.doBanco(matricula.getId(), matricula.getCodigoMatricula(), matricula.getDiscenteId(),
+            matricula.getDisciplinaId(), matricula.getDataMatricula());
+    }
+
+    private Matricula buscarPorPar(Long discenteId, Long disciplinaId) {
+        int discente = discentes.buscar(discenteId);
+        int disciplina = disciplinas.buscar(disciplinaId);
+        if (discente == IndiceDenso.AUSENTE || disciplina == IndiceDenso.AUSENTE) {
+            return null;
+        }
+
+        int id = idPorDiscenteDisciplina.obter(IndiceDenso.par(discente, disciplina), 0);
+        return id != 0 ? porDiscente.get(discente).get(id) : null;
+    }
+
+    private boolean existePar(Long discenteId, Long disciplinaId) {
+        int discente = discentes.buscar(discenteId);
+        int disciplina = disciplinas.buscar(disciplinaId);
+        return discente != IndiceDenso.AUSENTE && disciplina != IndiceDenso.AUSENTE &&
+            idPorDiscenteDisciplina.contem(IndiceDenso.par(discente, disciplina));
+    }
+
+    private int contarPorDiscente(Long discenteId) {
+        int discente = discentes.buscar(discenteId);
+        return discente != IndiceDenso.AUSENTE ? contagemPorDiscente[discente] : 0;
+    }
+
+    private int contarPorDisciplina(Long disciplinaId) {
+        int disciplina = disciplinas.buscar(disciplinaId);
+        return disciplina != IndiceDenso.AUSENTE ? contagemPorDisciplina[disciplina] : 0;
+    }
+
+    private boolean duplicada(Matricula matricula) {
+        return porCodigo.containsKey(matricula.getCodigoMatricula()) ||
+            existePar(matricula.getDiscenteId(), matricula.getDisciplinaId());
+    }
+
+    private ResultadoInsercao inserir(Matricula matricula) {
+        if (duplicada(matricula)) {
+            return ResultadoInsercao.DUPLICADO;
+        }
+
+        Matricula registro = Matricula.doBanco(ultimoId + 1, matricula.getCodigoMatricula(), matricula.getDiscenteId(),
+            matricula.getDisciplinaId(), matricula.getDataMatricula());
+        try {
+            registrarInsercoes(Collections.singletonList(registro));
+        } catch (IOException e) {
+            Logger.erro("[" + getClass().getSimpleName() + "] Erro ao adicionar matrícula: " + e.getMessage());
+            return ResultadoInsercao.ERRO;
+        }
+
+        indexar(registro);
+        aposAlteracao();
+        return ResultadoInsercao.INSERIDO;
+    }
+
+    @Override
+    public boolean adicionar(Matricula matricula) {
+        lock.writeLock().lock();
+        try {
+            return inserir(matricula) == ResultadoInsercao.INSERIDO;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public ResultadoInsercao adicionarComVaga(Matricula matricula, int vagasOfertadas) {
+        lock.writeLock().lock();
+        try {
+            if (duplicada(matricula)) {
+                return ResultadoInsercao.DUPLICADO;
+            }
+            if (contarPorDisciplina(matricula.getDisciplinaId()) >= vagasOfertadas) {
+                return ResultadoInsercao.SEM_VAGAS;
+            }
+            return inserir(matricula);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ResultadoInsercao> adicionarEmLote(List<Matricula> matriculas) {
+        List<ResultadoInsercao> resultados = new ArrayList<>(matriculas.size());
+        if (matriculas.isEmpty()) {
+            return resultados;
+        }
+
+        lock.writeLock().lock();
+        try {
+            List<Matricula> novas = new ArrayList<>();
+            Set<String> codigosVistos = new HashSet<>();
+            Set<String> paresVistos = new HashSet<>();
+            int proximoId = ultimoId;
+
+            for (Matricula matricula : matriculas) {
+                String par = matricula.getDiscenteId() + ":" + matricula.getDisciplinaId();
+                if (duplicada(matricula) || codigosVistos.contains(matricula.getCodigoMatricula()) || paresVistos.contains(par)) {
+                    resultados.add(ResultadoInsercao.DUPLICADO);
+                    continue;
+                }
+                codigosVistos.add(matricula.getCodigoMatricula());
+                paresVistos.add(par);
+
+                novas.add(Matricula.doBanco(++proximoId, matricula.getCodigoMatricula(),
+                    matricula.getDiscenteId(), matricula.getDisciplinaId(), matricula.getDataMatricula()));
+                resultados.add(ResultadoInsercao.INSERIDO);
+            }
+
+            try {
+                registrarInsercoes(novas);
+            } catch (IOException e) {
+                Logger.erro("[" + getClass().getSimpleName() + "] Erro ao inserir lote de matrículas: " + e.getMessage());
+                resultados.replaceAll(r -> r == ResultadoInsercao.INSERIDO ? ResultadoInsercao.ERRO : r);
+                return resultados;
+            }
+
+            for (Matricula registro : novas) {
+                indexar(registro);
+            }
+            aposAlteracao();
+            return resultados;
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean removerRegistro(Matricula matricula) {
+        if (matricula == null) {
+            return false;
+        }
+
+        try {
+            registrarRemocao(matricula);
+        } catch (IOException e) {
+            Logger.erro("[" + getClass().getSimpleName() + "] Erro ao remover matrícula: " + e.getMessage());
+            return false;
+        }
+
+        desindexarPorCodigo(matricula.getCodigoMatricula());
+        aposAlteracao();
+        return true;
+    }
+
+    @Override
+    public boolean remover(Long discenteId, Long disciplinaId) {
+        lock.writeLock().lock();
+        try {
+            return removerRegistro(buscarPorPar(discenteId, disciplinaId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removerPorCodigo(String codigoMatricula) {
+        lock.writeLock().lock();
+        try {
+            return removerRegistro(porCodigo.get(codigoMatricula));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Matricula> listarPorDiscente(Long discenteId) {
+        lock.readLock().lock();
+        try {
+            List<Matricula> matriculas = new ArrayList<>();
+            int discente = discentes.buscar(discenteId);
+            if (discente != IndiceDenso.AUSENTE) {
+                for (Matricula matricula : porDiscente.get(discente).values()) {
+                    matriculas.add(copiar(matricula));
+                }
+            }
+            return matriculas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Pagina<Matricula> listarPorDiscente(Long discenteId, Integer aposId, int tamanho) {
+        return listarPagina(discentes, porDiscente, discenteId, aposId, tamanho);
+    }
+
+    @Override
+    public Pagina<Matricula> listarPorDisciplina(Long disciplinaId, Integer aposId, int tamanho) {
+        return listarPagina(disciplinas, porDisciplina, disciplinaId, aposId, tamanho);
+    }
+
+    private Pagina<Matricula> listarPagina(IndiceDenso indice, List<TreeMap<Integer, Matricula>> grupos,
+                                           Long id, Integer aposId, int tamanho) {
+        lock.readLock().lock();
+        try {
+            int posicao = indice.buscar(id);
+            return paginar(posicao != IndiceDenso.AUSENTE ? grupos.get(posicao) : null, aposId, tamanho);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Pagina<Matricula> paginar(TreeMap<Integer, Matricula> grupo, Integer aposId, int tamanho) {
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        List<Matricula> itens = new ArrayList<>(limite);
+
+        if (grupo != null) {
+            Map<Integer, Matricula> restantes = aposId != null ? grupo.tailMap(aposId, false) : grupo;
+            for (Matricula matricula : restantes.values()) {
+                if (itens.size() == limite) {
+                    return new Pagina<>(itens, itens.get(itens.size() - 1).getId());
+                }
+                itens.add(copiar(matricula));
+            }
+        }
+        return new Pagina<>(itens, null);
+    }
+
+    @Override
+    public Pagina<Matricula> listarPorSemestre(int ano, int semestre, Integer aposId, int tamanho) {
+        int chaveSemestre = GeradorMatricula.chaveSemestre(ano, semestre);
+        lock.readLock().lock();
+        try {
+            return paginar(porSemestre.get(chaveSemestre), aposId, tamanho);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int arquivarSemestre(int ano, int semestre) {
+        int chaveSemestre = GeradorMatricula.chaveSemestre(ano, semestre);
+        lock.writeLock().lock();
+        try {
+            TreeMap<Integer, Matricula> grupo = porSemestre.get(chaveSemestre);
+            if (grupo == null) {
+                return 0;
+            }
+
+            List<Matricula> arquivadas = new ArrayList<>(grupo.values());
+            registrarArquivamento(chaveSemestre, arquivadas);
+            desindexarSemestre(chaveSemestre);
+            aposAlteracao();
+            return arquivadas.size();
+
+        } catch (IOException e) {
+            Logger.erro("[" + getClass().getSimpleName() + "] Erro ao arquivar semestre " + chaveSemestre + ": " + e.getMessage());
+            return -1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<Matricula> streamTodas() {
+        lock.readLock().lock();
+        try {
+            List<Matricula> todas = listarVivas();
+            todas.replaceAll(MatriculaRepositoryMemoria::copiar);
+            return todas.stream();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int contarMatriculasPorDiscente(Long discenteId) {
+        lock.readLock().lock();
+        try {
+            return contarPorDiscente(discenteId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int contarMatriculasPorDisciplina(Long disciplinaId) {
+        lock.readLock().lock();
+        try {
+            return contarPorDisciplina(disciplinaId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Long, Integer> contarMatriculasPorDisciplinas(Collection<Long> disciplinaIds) {
+        Map<Long, Integer> contagens = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Long disciplinaId : disciplinaIds) {
+                contagens.put(disciplinaId, contarPorDisciplina(disciplinaId));
+            }
+            return contagens;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existeMatricula(Long discenteId, Long disciplinaId) {
+        lock.readLock().lock();
+        try {
+            return existePar(discenteId, disciplinaId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public EstadoMatricula consultarEstadoMatricula(Long discenteId, Long disciplinaId) {
+        lock.readLock().lock();
+        try {
+            return new EstadoMatricula(
+                contarPorDiscente(discenteId),
+                contarPorDisciplina(disciplinaId),
+                existePar(discenteId, disciplinaId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Matricula buscarPorCodigo(String codigoMatricula) {
+        lock.readLock().lock();
+        try {
+            Matricula matricula = porCodigo.get(codigoMatricula);
+            return matricula != null ? copiar(matricula) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
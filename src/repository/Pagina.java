@@ -0,0 +1,33 @@
+package repository;
+
+import java.util.List;
+
+public class Pagina<T> {
+    private final List<T> itens;
+    private final Integer proximoCursor;
+
+    public Pagina(List<T> itens, Integer proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    public Integer getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public boolean temProxima() {
+        return proximoCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Pagina{" +
+                "itens=" + itens.size() +
+                ", proximoCursor=" + proximoCursor +
+                '}';
+    }
+}
@@ -0,0 +1,50 @@
+package repository;
+
+import model.ReservaLivro;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public class ReservaRepositoryAssincrono {
+
+    private final IReservaRepository repositorio;
+    private final ExecutorRepositorio executor;
+
+    public ReservaRepositoryAssincrono(IReservaRepository repositorio, ExecutorRepositorio executor) {
+        this.repositorio = repositorio;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Boolean> adicionar(ReservaLivro reserva) {
+        return executor.submeter(() -> repositorio.adicionar(reserva));
+    }
+
+    public CompletableFuture<List<ResultadoInsercao>> adicionarEmLote(List<ReservaLivro> reservas) {
+        return executor.submeter(() -> repositorio.adicionarEmLote(reservas));
+    }
+
+    public CompletableFuture<Boolean> remover(Long discenteId, Long livroId) {
+        return executor.submeter(() -> repositorio.remover(discenteId, livroId));
+    }
+
+    public CompletableFuture<List<ReservaLivro>> listarPorDiscente(Long discenteId) {
+        return executor.submeter(() -> repositorio.listarPorDiscente(discenteId));
+    }
+
+    public CompletableFuture<Pagina<ReservaLivro>> listarPorDiscente(Long discenteId, Integer aposId, int tamanho) {
+        return executor.submeter(() -> repositorio.listarPorDiscente(discenteId, aposId, tamanho));
+    }
+
+    public CompletableFuture<Boolean> livroEstaReservado(Long livroId) {
+        return executor.submeter(() -> repositorio.livroEstaReservado(livroId));
+    }
+
+    public CompletableFuture<Set<Long>> listarLivrosReservados() {
+        return executor.submeter(repositorio::listarLivrosReservados);
+    }
+
+    public CompletableFuture<Boolean> existeReserva(Long discenteId, Long livroId) {
+        return executor.submeter(() -> repositorio.existeReserva(discenteId, livroId));
+    }
+}
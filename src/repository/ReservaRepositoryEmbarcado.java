@@ -0,0 +1,128 @@
+package repository;
+
+import model.ReservaLivro;
+import util.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ReservaRepositoryEmbarcado extends ReservaRepositoryMemoria implements AutoCloseable {
+
+    private static final byte TIPO_INSERCAO = 1;
+    private static final byte TIPO_REMOCAO = 2;
+    private static final long LIMITE_MINIMO_COMPACTACAO = 10_000;
+    private static final long SEM_DATA = Long.MIN_VALUE;
+
+    private final LogRegistros log;
+
+    public ReservaRepositoryEmbarcado(Path diretorio, LogRegistros.PoliticaFsync politica, long intervaloFsyncMs) throws IOException {
+        this.log = new LogRegistros(diretorio.resolve("reservas.log"), politica, intervaloFsyncMs);
+        this.log.reproduzir(this::aplicar);
+        if (log.getVersaoArquivo() < LogRegistros.VERSAO) {
+            Logger.info("[ReservaRepositoryEmbarcado] Convertendo reservas.log para a versão " + LogRegistros.VERSAO);
+            compactar();
+        }
+        Logger.debug("[ReservaRepositoryEmbarcado] " + totalVivas() + " reservas carregadas de " +
+            log.getRegistros() + " registros.");
+    }
+
+    private void aplicar(byte tipo, byte[] conteudo) throws IOException {
+        DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(conteudo));
+        if (tipo == TIPO_INSERCAO) {
+            int id = entrada.readInt();
+            long discenteId = lerId(entrada);
+            long livroId = lerId(entrada);
+            long dia = entrada.readLong();
+            indexar(ReservaLivro.doBanco(id, discenteId, livroId, dia == SEM_DATA ? null : LocalDate.ofEpochDay(dia)));
+        } else if (tipo == TIPO_REMOCAO) {
+            long discenteId = lerId(entrada);
+            long livroId = lerId(entrada);
+            desindexar(discenteId, livroId);
+        } else {
+            throw new IOException("Tipo de registro desconhecido: " + tipo);
+        }
+    }
+
+    private long lerId(DataInputStream entrada) throws IOException {
+        // Versão 1 do log gravava os ids como texto
+        return log.getVersaoArquivo() == 1 ? Long.parseLong(entrada.readUTF()) : entrada.readLong();
+    }
+
+    private static byte[] codificarInsercao(ReservaLivro reserva) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        DataOutputStream saida = new DataOutputStream(bytes);
+        saida.writeInt(reserva.getId());
+        saida.writeLong(reserva.getDiscenteId());
+        saida.writeLong(reserva.getLivroId());
+        saida.writeLong(reserva.getDataReserva() != null ? reserva.getDataReserva().toEpochDay() : SEM_DATA);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] codificarRemocao(ReservaLivro reserva) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        DataOutputStream saida = new DataOutputStream(bytes);
+        saida.writeLong(reserva.getDiscenteId());
+        saida.writeLong(reserva.getLivroId());
+        return bytes.toByteArray();
+    }
+
+    private static List<LogRegistros.Registro> registrosDeInsercao(List<ReservaLivro> reservas) throws IOException {
+        List<LogRegistros.Registro> registros = new ArrayList<>(reservas.size());
+        for (ReservaLivro reserva : reservas) {
+            registros.add(new LogRegistros.Registro(TIPO_INSERCAO, codificarInsercao(reserva)));
+        }
+        return registros;
+    }
+
+    @Override
+    protected void registrarInsercoes(List<ReservaLivro> registros) throws IOException {
+        if (registros.size() == 1) {
+            log.anexar(TIPO_INSERCAO, codificarInsercao(registros.get(0)));
+        } else {
+            log.anexarTodos(registrosDeInsercao(registros));
+        }
+    }
+
+    @Override
+    protected void registrarRemocao(ReservaLivro registro) throws IOException {
+        log.anexar(TIPO_REMOCAO, codificarRemocao(registro));
+    }
+
+    @Override
+    protected void aposAlteracao() {
+        long registros = log.getRegistros();
+        if (registros >= LIMITE_MINIMO_COMPACTACAO && registros >= 2L * totalVivas()) {
+            compactar();
+        }
+    }
+
+    public void compactar() {
+        lock.writeLock().lock();
+        try {
+            log.compactar(registrosDeInsercao(listarVivas()));
+        } catch (IOException e) {
+            Logger.erro("[ReservaRepositoryEmbarcado] Falha ao compactar log: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            log.close();
+        } catch (IOException e) {
+            Logger.erro("[ReservaRepositoryEmbarcado] Erro ao fechar log: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package repository;
 
+import exception.LeituraRepositorioException;
 import model.ReservaLivro;
 import util.DatabaseConnection;
 import util.Logger;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class ReservaRepositoryImpl implements IReservaRepository {
 
@@ -15,50 +20,183 @@ public class ReservaRepositoryImpl implements IReservaRepository {
     private static final String SQL_INSERT =
         "INSERT INTO reservas_livros (discente_id, livro_id, data_reserva) VALUES (?, ?, ?)";
 
+    private static final String SQL_SELECT_EXISTENTES_LOTE =
+        "SELECT discente_id, livro_id FROM reservas_livros WHERE (discente_id, livro_id) IN (%s)";
+
+    private static final int TAMANHO_LOTE = 1000;
+
     private static final String SQL_DELETE =
         "DELETE FROM reservas_livros WHERE discente_id = ? AND livro_id = ?";
 
     private static final String SQL_SELECT_BY_DISCENTE =
         "SELECT id, discente_id, livro_id, data_reserva FROM reservas_livros WHERE discente_id = ?";
 
+    private static final String SQL_SELECT_PAGINA_BY_DISCENTE =
+        "SELECT id, discente_id, livro_id, data_reserva FROM reservas_livros " +
+        "WHERE discente_id = ? AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String SQL_SELECT_ALL =
+        "SELECT id, discente_id, livro_id, data_reserva FROM reservas_livros ORDER BY id";
+
+    private static final int TAMANHO_MAXIMO_PAGINA = 1000;
+
     private static final String SQL_LIVRO_RESERVADO =
         "SELECT COUNT(*) FROM reservas_livros WHERE livro_id = ?";
 
+    private static final String SQL_LIVROS_RESERVADOS =
+        "SELECT DISTINCT livro_id FROM reservas_livros";
+
     private static final String SQL_EXISTS =
         "SELECT COUNT(*) FROM reservas_livros WHERE discente_id = ? AND livro_id = ?";
 
     public ReservaRepositoryImpl(DatabaseConnection databaseConnection) {
         this.databaseConnection = databaseConnection;
+        databaseConnection.registrarInstrucoes(ReservaRepositoryImpl.class);
     }
 
     @Override
     public boolean adicionar(ReservaLivro reserva) {
+        return reservar(reserva) == ResultadoInsercao.INSERIDO;
+    }
+
+    // A unicidade de livro_id (uk_reserva_livro) é quem impede duas reservas do mesmo livro:
+    // uma verificação com FOR UPDATE travaria só o gap e levaria reservas concorrentes a deadlock
+    @Override
+    public ResultadoInsercao reservar(ReservaLivro reserva) {
         try (Connection conn = databaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
 
-            stmt.setString(1, reserva.getDiscenteId());
-            stmt.setString(2, reserva.getLivroId());
+            stmt.setLong(1, reserva.getDiscenteId());
+            stmt.setLong(2, reserva.getLivroId());
             stmt.setDate(3, Date.valueOf(reserva.getDataReserva()));
 
-            return stmt.executeUpdate() > 0;
+            return stmt.executeUpdate() > 0 ? ResultadoInsercao.INSERIDO : ResultadoInsercao.ERRO;
 
         } catch (SQLException e) {
             if (e.getErrorCode() == 1062) {
-                Logger.debug("[ReservaRepository] Reserva duplicada");
+                Logger.debug("[ReservaRepository] Livro " + reserva.getLivroId() + " já reservado");
+                return ResultadoInsercao.DUPLICADO;
+            }
+            if (e.getErrorCode() == 1213 || e.getErrorCode() == 1205) {
+                Logger.aviso("[ReservaRepository] Reserva concorrente do livro " + reserva.getLivroId() +
+                    " abortada: " + e.getMessage());
+                return ResultadoInsercao.CONFLITO;
+            }
+            Logger.erro("[ReservaRepository] Erro SQL: " + e.getMessage());
+            return ResultadoInsercao.ERRO;
+        }
+    }
+
+    @Override
+    public List<ResultadoInsercao> adicionarEmLote(List<ReservaLivro> reservas) {
+        List<ResultadoInsercao> resultados = new ArrayList<>(Collections.nCopies(reservas.size(), ResultadoInsercao.ERRO));
+        if (reservas.isEmpty()) {
+            return resultados;
+        }
+
+        Set<String> paresVistos = new HashSet<>();
+
+        try (Connection conn = databaseConnection.getConnection()) {
+            for (int inicio = 0; inicio < reservas.size(); inicio += TAMANHO_LOTE) {
+                int fim = Math.min(inicio + TAMANHO_LOTE, reservas.size());
+                inserirLote(conn, reservas, inicio, fim, resultados, paresVistos);
+            }
+
+        } catch (SQLException e) {
+            Logger.erro("[ReservaRepository] Erro ao inserir lote: " + e.getMessage());
+        }
+
+        return resultados;
+    }
+
+    private void inserirLote(Connection conn, List<ReservaLivro> reservas, int inicio, int fim,
+                             List<ResultadoInsercao> resultados, Set<String> paresVistos) throws SQLException {
+
+        carregarExistentes(conn, reservas.subList(inicio, fim), paresVistos);
+
+        List<Integer> pendentes = new ArrayList<>();
+        for (int i = inicio; i < fim; i++) {
+            ReservaLivro reserva = reservas.get(i);
+            if (paresVistos.add(reserva.getDiscenteId() + "|" + reserva.getLivroId())) {
+                pendentes.add(i);
             } else {
-                Logger.erro("[ReservaRepository] Erro SQL: " + e.getMessage());
+                resultados.set(i, ResultadoInsercao.DUPLICADO);
             }
-            return false;
+        }
+
+        if (pendentes.isEmpty()) {
+            return;
+        }
+
+        try (TransacaoJdbc transacao = TransacaoJdbc.iniciar(conn);
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
+
+            for (int indice : pendentes) {
+                ReservaLivro reserva = reservas.get(indice);
+                stmt.setLong(1, reserva.getDiscenteId());
+                stmt.setLong(2, reserva.getLivroId());
+                stmt.setDate(3, Date.valueOf(reserva.getDataReserva()));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+
+            transacao.confirmar();
+            for (int indice : pendentes) {
+                resultados.set(indice, ResultadoInsercao.INSERIDO);
+            }
+            return;
+
+        } catch (BatchUpdateException e) {
+            Logger.debug("[ReservaRepository] Lote rejeitado, inserindo individualmente: " + e.getMessage());
+        }
+
+        for (int indice : pendentes) {
+            resultados.set(indice, inserirIndividualmente(conn, reservas.get(indice)));
+        }
+    }
+
+    private void carregarExistentes(Connection conn, List<ReservaLivro> lote, Set<String> pares) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(lote.size(), "(?, ?)"));
+
+        try (PreparedStatement stmt = conn.prepareStatement(String.format(SQL_SELECT_EXISTENTES_LOTE, placeholders))) {
+            int parametro = 1;
+            for (ReservaLivro reserva : lote) {
+                stmt.setLong(parametro++, reserva.getDiscenteId());
+                stmt.setLong(parametro++, reserva.getLivroId());
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    pares.add(rs.getLong(1) + "|" + rs.getLong(2));
+                }
+            }
+        }
+    }
+
+    private ResultadoInsercao inserirIndividualmente(Connection conn, ReservaLivro reserva) {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
+            stmt.setLong(1, reserva.getDiscenteId());
+            stmt.setLong(2, reserva.getLivroId());
+            stmt.setDate(3, Date.valueOf(reserva.getDataReserva()));
+            stmt.executeUpdate();
+            return ResultadoInsercao.INSERIDO;
+
+        } catch (SQLException e) {
+            if (e.getErrorCode() == 1062) {
+                return ResultadoInsercao.DUPLICADO;
+            }
+            Logger.erro("[ReservaRepository] Erro ao inserir reserva: " + e.getMessage());
+            return ResultadoInsercao.ERRO;
         }
     }
 
     @Override
-    public boolean remover(String discenteId, String livroId) {
+    public boolean remover(Long discenteId, Long livroId) {
         try (Connection conn = databaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SQL_DELETE)) {
 
-            stmt.setString(1, discenteId);
-            stmt.setString(2, livroId);
+            stmt.setLong(1, discenteId);
+            stmt.setLong(2, livroId);
 
             int rowsAffected = stmt.executeUpdate();
             if (rowsAffected == 0) {
@@ -73,32 +211,26 @@ public class ReservaRepositoryImpl implements IReservaRepository {
     }
 
     @Override
-    public List<ReservaLivro> listarPorDiscente(String discenteId) {
+    public List<ReservaLivro> listarPorDiscente(Long discenteId) {
         List<ReservaLivro> reservas = new ArrayList<>();
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
 
         try {
-            conn = databaseConnection.getConnection();
+            conn = databaseConnection.getConnectionLeitura();
             if (conn == null) {
                 Logger.erro("[ReservaRepository] Falha ao obter conexão com o banco.");
                 return reservas;
             }
 
             stmt = conn.prepareStatement(SQL_SELECT_BY_DISCENTE);
-            stmt.setString(1, discenteId);
+            stmt.setLong(1, discenteId);
 
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                ReservaLivro reserva = ReservaLivro.doBanco(
-                    rs.getInt("id"),
-                    rs.getString("discente_id"),
-                    rs.getString("livro_id"),
-                    rs.getDate("data_reserva").toLocalDate()
-                );
-                reservas.add(reserva);
+                reservas.add(mapearReserva(rs));
             }
 
         } catch (SQLException e) {
@@ -112,11 +244,69 @@ public class ReservaRepositoryImpl implements IReservaRepository {
     }
 
     @Override
-    public boolean livroEstaReservado(String livroId) {
+    public Pagina<ReservaLivro> listarPorDiscente(Long discenteId, Integer aposId, int tamanho) {
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        List<ReservaLivro> reservas = new ArrayList<>(limite + 1);
+
+        try (Connection conn = databaseConnection.getConnectionLeitura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_SELECT_PAGINA_BY_DISCENTE)) {
+
+            stmt.setLong(1, discenteId);
+            stmt.setInt(2, aposId != null ? aposId : 0);
+            stmt.setInt(3, limite + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    reservas.add(mapearReserva(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            Logger.erro("[ReservaRepository] Erro ao listar página de reservas: " + e.getMessage());
+        }
+
+        if (reservas.size() > limite) {
+            reservas.remove(limite);
+            return new Pagina<>(reservas, reservas.get(limite - 1).getId());
+        }
+        return new Pagina<>(reservas, null);
+    }
+
+    @Override
+    public Stream<ReservaLivro> streamTodas() {
+        Connection conn = databaseConnection.getConnectionDedicada();
+        if (conn == null) {
+            throw new LeituraRepositorioException("Falha ao obter conexão com o banco.", null);
+        }
+
+        PreparedStatement stmt = null;
+        try {
+            stmt = conn.prepareStatement(SQL_SELECT_ALL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            ResultSet rs = stmt.executeQuery();
+            return ResultSetStream.criar(rs, ReservaRepositoryImpl::mapearReserva, rs, stmt, conn);
+
+        } catch (SQLException e) {
+            DatabaseConnection.fecharRecursos(stmt, conn);
+            throw new LeituraRepositorioException("Erro ao percorrer reservas: " + e.getMessage(), e);
+        }
+    }
+
+    private static ReservaLivro mapearReserva(ResultSet rs) throws SQLException {
+        return ReservaLivro.doBanco(
+            rs.getInt("id"),
+            rs.getLong("discente_id"),
+            rs.getLong("livro_id"),
+            rs.getDate("data_reserva").toLocalDate()
+        );
+    }
+
+    @Override
+    public boolean livroEstaReservado(Long livroId) {
         try (Connection conn = databaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SQL_LIVRO_RESERVADO)) {
 
-            stmt.setString(1, livroId);
+            stmt.setLong(1, livroId);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 return rs.next() && rs.getInt(1) > 0;
@@ -129,12 +319,31 @@ public class ReservaRepositoryImpl implements IReservaRepository {
     }
 
     @Override
-    public boolean existeReserva(String discenteId, String livroId) {
+    public Set<Long> listarLivrosReservados() {
+        Set<Long> livrosReservados = new HashSet<>();
+
+        try (Connection conn = databaseConnection.getConnectionLeitura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_LIVROS_RESERVADOS);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                livrosReservados.add(rs.getLong(1));
+            }
+
+        } catch (SQLException e) {
+            Logger.erro("[ReservaRepository] Erro ao listar livros reservados: " + e.getMessage());
+        }
+
+        return livrosReservados;
+    }
+
+    @Override
+    public boolean existeReserva(Long discenteId, Long livroId) {
         try (Connection conn = databaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SQL_EXISTS)) {
 
-            stmt.setString(1, discenteId);
-            stmt.setString(2, livroId);
+            stmt.setLong(1, discenteId);
+            stmt.setLong(2, livroId);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 return rs.next() && rs.getInt(1) > 0;
@@ -0,0 +1,297 @@
+package repository;
+
+import model.ReservaLivro;
+import util.Logger;
+import util.MapaLongInt;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+public class ReservaRepositoryMemoria implements IReservaRepository {
+
+    private static final int TAMANHO_MAXIMO_PAGINA = 1000;
+
+    protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final IndiceDenso discentes = new IndiceDenso();
+    private final IndiceDenso livros = new IndiceDenso();
+    private final MapaLongInt idPorDiscenteLivro = new MapaLongInt();
+    private final List<TreeMap<Integer, ReservaLivro>> porDiscente = new ArrayList<>();
+    private int[] reservasPorLivro = new int[16];
+    private int total;
+    private int ultimoId;
+
+    protected void registrarInsercoes(List<ReservaLivro> registros) throws IOException {
+    }
+
+    protected void registrarRemocao(ReservaLivro registro) throws IOException {
+    }
+
+    protected void aposAlteracao() {
+    }
+
+    protected final void indexar(ReservaLivro reserva) {
+        int discente = discentes.indice(reserva.getDiscenteId());
+        int livro = livros.indice(reserva.getLivroId());
+
+        idPorDiscenteLivro.definir(IndiceDenso.par(discente, livro), reserva.getId());
+        while (porDiscente.size() <= discente) {
+            porDiscente.add(new TreeMap<>());
+        }
+        porDiscente.get(discente).put(reserva.getId(), reserva);
+
+        if (livro >= reservasPorLivro.length) {
+            reservasPorLivro = Arrays.copyOf(reservasPorLivro, Math.max(livro + 1, reservasPorLivro.length * 2));
+        }
+        reservasPorLivro[livro]++;
+
+        total++;
+        ultimoId = Math.max(ultimoId, reserva.getId());
+    }
+
+    protected final void desindexar(Long discenteId, Long livroId) {
+        ReservaLivro reserva = buscarPorPar(discenteId, livroId);
+        if (reserva == null) {
+            return;
+        }
+
+        int discente = discentes.buscar(discenteId);
+        int livro = livros.buscar(livroId);
+
+        idPorDiscenteLivro.remover(IndiceDenso.par(discente, livro));
+        porDiscente.get(discente).remove(reserva.getId());
+        reservasPorLivro[livro]--;
+        total--;
+    }
+
+    protected final List<ReservaLivro> listarVivas() {
+        List<ReservaLivro> vivas = new ArrayList<>(total);
+        for (TreeMap<Integer, ReservaLivro> grupo : porDiscente) {
+            vivas.addAll(grupo.values());
+        }
+        vivas.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+        return vivas;
+    }
+
+    protected final int totalVivas() {
+        return total;
+    }
+
+    private static ReservaLivro copiar(ReservaLivro reserva) {
+        return ReservaLivro.doBanco(reserva.getId(), reserva.getDiscenteId(), reserva.getLivroId(), reserva.getDataReserva());
+    }
+
+    private ReservaLivro buscarPorPar(Long discenteId, Long livroId) {
+        int discente = discentes.buscar(discenteId);
+        int livro = livros.buscar(livroId);
+        if (discente == IndiceDenso.AUSENTE || livro == IndiceDenso.AUSENTE) {
+            return null;
+        }
+
+        int id = idPorDiscenteLivro.obter(IndiceDenso.par(discente, livro), 0);
+        return id != 0 ? porDiscente.get(discente).get(id) : null;
+    }
+
+    private boolean existePar(Long discenteId, Long livroId) {
+        int discente = discentes.buscar(discenteId);
+        int livro = livros.buscar(livroId);
+        return discente != IndiceDenso.AUSENTE && livro != IndiceDenso.AUSENTE &&
+            idPorDiscenteLivro.contem(IndiceDenso.par(discente, livro));
+    }
+
+    private boolean reservado(Long livroId) {
+        int livro = livros.buscar(livroId);
+        return livro != IndiceDenso.AUSENTE && reservasPorLivro[livro] > 0;
+    }
+
+    @Override
+    public boolean adicionar(ReservaLivro reserva) {
+        return reservar(reserva) == ResultadoInsercao.INSERIDO;
+    }
+
+    @Override
+    public ResultadoInsercao reservar(ReservaLivro reserva) {
+        lock.writeLock().lock();
+        try {
+            if (reservado(reserva.getLivroId())) {
+                return ResultadoInsercao.DUPLICADO;
+            }
+
+            ReservaLivro registro = ReservaLivro.doBanco(ultimoId + 1, reserva.getDiscenteId(),
+                reserva.getLivroId(), reserva.getDataReserva());
+            registrarInsercoes(Collections.singletonList(registro));
+            indexar(registro);
+            aposAlteracao();
+            return ResultadoInsercao.INSERIDO;
+
+        } catch (IOException e) {
+            Logger.erro("[" + getClass().getSimpleName() + "] Erro ao adicionar reserva: " + e.getMessage());
+            return ResultadoInsercao.ERRO;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ResultadoInsercao> adicionarEmLote(List<ReservaLivro> reservas) {
+        List<ResultadoInsercao> resultados = new ArrayList<>(reservas.size());
+        if (reservas.isEmpty()) {
+            return resultados;
+        }
+
+        lock.writeLock().lock();
+        try {
+            List<ReservaLivro> novas = new ArrayList<>();
+            Set<Long> livrosVistos = new HashSet<>();
+            int proximoId = ultimoId;
+
+            for (ReservaLivro reserva : reservas) {
+                if (reservado(reserva.getLivroId()) || !livrosVistos.add(reserva.getLivroId())) {
+                    resultados.add(ResultadoInsercao.DUPLICADO);
+                    continue;
+                }
+
+                novas.add(ReservaLivro.doBanco(++proximoId, reserva.getDiscenteId(),
+                    reserva.getLivroId(), reserva.getDataReserva()));
+                resultados.add(ResultadoInsercao.INSERIDO);
+            }
+
+            try {
+                registrarInsercoes(novas);
+            } catch (IOException e) {
+                Logger.erro("[" + getClass().getSimpleName() + "] Erro ao inserir lote de reservas: " + e.getMessage());
+                resultados.replaceAll(r -> r == ResultadoInsercao.INSERIDO ? ResultadoInsercao.ERRO : r);
+                return resultados;
+            }
+
+            for (ReservaLivro registro : novas) {
+                indexar(registro);
+            }
+            aposAlteracao();
+            return resultados;
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remover(Long discenteId, Long livroId) {
+        lock.writeLock().lock();
+        try {
+            ReservaLivro reserva = buscarPorPar(discenteId, livroId);
+            if (reserva == null) {
+                return false;
+            }
+
+            registrarRemocao(reserva);
+            desindexar(discenteId, livroId);
+            aposAlteracao();
+            return true;
+
+        } catch (IOException e) {
+            Logger.erro("[" + getClass().getSimpleName() + "] Erro ao remover reserva: " + e.getMessage());
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ReservaLivro> listarPorDiscente(Long discenteId) {
+        lock.readLock().lock();
+        try {
+            List<ReservaLivro> reservas = new ArrayList<>();
+            int discente = discentes.buscar(discenteId);
+            if (discente != IndiceDenso.AUSENTE) {
+                for (ReservaLivro reserva : porDiscente.get(discente).values()) {
+                    reservas.add(copiar(reserva));
+                }
+            }
+            return reservas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Pagina<ReservaLivro> listarPorDiscente(Long discenteId, Integer aposId, int tamanho) {
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        List<ReservaLivro> itens = new ArrayList<>(limite);
+
+        lock.readLock().lock();
+        try {
+            int discente = discentes.buscar(discenteId);
+            if (discente != IndiceDenso.AUSENTE) {
+                TreeMap<Integer, ReservaLivro> grupo = porDiscente.get(discente);
+                Map<Integer, ReservaLivro> restantes = aposId != null ? grupo.tailMap(aposId, false) : grupo;
+                for (ReservaLivro reserva : restantes.values()) {
+                    if (itens.size() == limite) {
+                        return new Pagina<>(itens, itens.get(itens.size() - 1).getId());
+                    }
+                    itens.add(copiar(reserva));
+                }
+            }
+            return new Pagina<>(itens, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<ReservaLivro> streamTodas() {
+        lock.readLock().lock();
+        try {
+            List<ReservaLivro> todas = listarVivas();
+            todas.replaceAll(ReservaRepositoryMemoria::copiar);
+            return todas.stream();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean livroEstaReservado(Long livroId) {
+        lock.readLock().lock();
+        try {
+            return reservado(livroId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<Long> listarLivrosReservados() {
+        lock.readLock().lock();
+        try {
+            Set<Long> reservados = new HashSet<>();
+            for (int livro = 0; livro < livros.tamanho(); livro++) {
+                if (reservasPorLivro[livro] > 0) {
+                    reservados.add(livros.id(livro));
+                }
+            }
+            return reservados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existeReserva(Long discenteId, Long livroId) {
+        lock.readLock().lock();
+        try {
+            return existePar(discenteId, livroId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
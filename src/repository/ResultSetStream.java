@@ -0,0 +1,70 @@
+package repository;
+
+import exception.LeituraRepositorioException;
+import util.DatabaseConnection;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+final class ResultSetStream {
+
+    @FunctionalInterface
+    interface MapeadorLinha<T> {
+        T mapear(ResultSet rs) throws SQLException;
+    }
+
+    private ResultSetStream() {
+    }
+
+    static <T> Stream<T> criar(ResultSet rs, MapeadorLinha<T> mapeador, AutoCloseable... recursos) {
+        LeitorResultSet<T> leitor = new LeitorResultSet<>(rs, mapeador, recursos);
+        return StreamSupport.stream(leitor, false).onClose(leitor::fechar);
+    }
+
+    private static final class LeitorResultSet<T> extends Spliterators.AbstractSpliterator<T> {
+        private final ResultSet rs;
+        private final MapeadorLinha<T> mapeador;
+        private final AutoCloseable[] recursos;
+        private boolean fechado;
+
+        private LeitorResultSet(ResultSet rs, MapeadorLinha<T> mapeador, AutoCloseable[] recursos) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rs = rs;
+            this.mapeador = mapeador;
+            this.recursos = recursos;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> acao) {
+            if (fechado) {
+                return false;
+            }
+
+            try {
+                if (rs.next()) {
+                    acao.accept(mapeador.mapear(rs));
+                    return true;
+                }
+            } catch (SQLException e) {
+                // Interromper o stream em silêncio faria uma leitura parcial parecer completa
+                fechar();
+                throw new LeituraRepositorioException("Erro ao ler linha: " + e.getMessage(), e);
+            }
+
+            fechar();
+            return false;
+        }
+
+        private void fechar() {
+            if (!fechado) {
+                fechado = true;
+                DatabaseConnection.fecharRecursos(recursos);
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package repository;
+
+public enum ResultadoInsercao {
+    INSERIDO,
+    DUPLICADO,
+    SEM_VAGAS,
+    CONFLITO,
+    ERRO
+}
@@ -0,0 +1,226 @@
+package repository;
+
+import model.Matricula;
+import model.ReservaLivro;
+import util.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public final class SnapshotRepositorios {
+
+    private static final int MAGICO = 0x41435350;
+    private static final byte VERSAO = 1;
+    private static final byte MARCA_REGISTRO = 1;
+    private static final byte MARCA_FIM = 0;
+    private static final long SEM_DATA = Long.MIN_VALUE;
+    private static final int TAMANHO_LOTE = 1000;
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private SnapshotRepositorios() {
+    }
+
+    // Grava em arquivo temporário; o snapshot anterior só é substituído em Gravacao.confirmar()
+    public static Gravacao gravar(Path arquivo, IMatriculaRepository matriculas, IReservaRepository reservas) {
+        long inicio = System.currentTimeMillis();
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+
+        try {
+            if (arquivo.getParent() != null) {
+                Files.createDirectories(arquivo.getParent());
+            }
+
+            int totalMatriculas;
+            int totalReservas;
+            try (DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temporario), TAMANHO_BUFFER), TAMANHO_BUFFER))) {
+
+                saida.writeInt(MAGICO);
+                saida.writeByte(VERSAO);
+
+                try (Stream<Matricula> todas = matriculas.streamTodas()) {
+                    totalMatriculas = escreverSecao(saida, todas.iterator(), (matricula, destino) -> {
+                        destino.writeUTF(matricula.getCodigoMatricula());
+                        destino.writeLong(matricula.getDiscenteId());
+                        destino.writeLong(matricula.getDisciplinaId());
+                        destino.writeLong(epochDay(matricula.getDataMatricula()));
+                    });
+                }
+
+                try (Stream<ReservaLivro> todas = reservas.streamTodas()) {
+                    totalReservas = escreverSecao(saida, todas.iterator(), (reserva, destino) -> {
+                        destino.writeLong(reserva.getDiscenteId());
+                        destino.writeLong(reserva.getLivroId());
+                        destino.writeLong(epochDay(reserva.getDataReserva()));
+                    });
+                }
+            }
+
+            Logger.debug("[SnapshotRepositorios] " + totalMatriculas + " matrículas e " + totalReservas +
+                " reservas gravadas em " + temporario + " (" + (System.currentTimeMillis() - inicio) + " ms)");
+            return new Gravacao(arquivo, temporario, totalMatriculas, totalReservas);
+
+        } catch (IOException | RuntimeException e) {
+            Logger.erro("[SnapshotRepositorios] Falha ao gravar snapshot em " + arquivo + ": " + e.getMessage());
+            excluir(temporario);
+            return null;
+        }
+    }
+
+    public static final class Gravacao {
+        private final Path arquivo;
+        private final Path temporario;
+        private final int totalMatriculas;
+        private final int totalReservas;
+
+        private Gravacao(Path arquivo, Path temporario, int totalMatriculas, int totalReservas) {
+            this.arquivo = arquivo;
+            this.temporario = temporario;
+            this.totalMatriculas = totalMatriculas;
+            this.totalReservas = totalReservas;
+        }
+
+        public int getTotalMatriculas() {
+            return totalMatriculas;
+        }
+
+        public int getTotalReservas() {
+            return totalReservas;
+        }
+
+        public boolean confirmar() {
+            try {
+                Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Logger.info("[SnapshotRepositorios] " + totalMatriculas + " matrículas e " + totalReservas +
+                    " reservas gravadas em " + arquivo + " (" + Files.size(arquivo) + " bytes)");
+                return true;
+            } catch (IOException e) {
+                Logger.erro("[SnapshotRepositorios] Falha ao substituir snapshot " + arquivo + ": " + e.getMessage());
+                excluir(temporario);
+                return false;
+            }
+        }
+
+        public void descartar() {
+            excluir(temporario);
+        }
+    }
+
+    private static void excluir(Path temporario) {
+        try {
+            Files.deleteIfExists(temporario);
+        } catch (IOException ignorada) {
+        }
+    }
+
+    public static boolean restaurar(Path arquivo, IMatriculaRepository matriculas, IReservaRepository reservas) {
+        if (!Files.exists(arquivo)) {
+            Logger.debug("[SnapshotRepositorios] Nenhum snapshot em " + arquivo);
+            return false;
+        }
+
+        long inicio = System.currentTimeMillis();
+
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(arquivo), TAMANHO_BUFFER), TAMANHO_BUFFER))) {
+
+            if (entrada.readInt() != MAGICO) {
+                throw new IOException("arquivo não é um snapshot");
+            }
+            byte versao = entrada.readByte();
+            if (versao != VERSAO) {
+                throw new IOException("versão de snapshot não suportada: " + versao);
+            }
+
+            int[] totalMatriculas = {0};
+            lerSecao(entrada, origem -> Matricula.nova(
+                origem.readUTF(), origem.readLong(), origem.readLong(), data(origem.readLong())),
+                lote -> totalMatriculas[0] += contarInseridos(matriculas.adicionarEmLote(lote)));
+
+            int[] totalReservas = {0};
+            lerSecao(entrada, origem -> ReservaLivro.nova(
+                origem.readLong(), origem.readLong(), data(origem.readLong())),
+                lote -> totalReservas[0] += contarInseridos(reservas.adicionarEmLote(lote)));
+
+            Logger.info("[SnapshotRepositorios] " + totalMatriculas[0] + " matrículas e " + totalReservas[0] +
+                " reservas restauradas de " + arquivo + " em " + (System.currentTimeMillis() - inicio) + " ms");
+            return true;
+
+        } catch (IOException | RuntimeException e) {
+            Logger.erro("[SnapshotRepositorios] Falha ao restaurar snapshot " + arquivo + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Escritor<T> {
+        void escrever(T item, DataOutputStream destino) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Leitor<T> {
+        T ler(DataInputStream origem) throws IOException;
+    }
+
+    private static <T> int escreverSecao(DataOutputStream saida, Iterator<T> itens, Escritor<T> escritor) throws IOException {
+        int total = 0;
+        while (itens.hasNext()) {
+            saida.writeByte(MARCA_REGISTRO);
+            escritor.escrever(itens.next(), saida);
+            total++;
+        }
+        saida.writeByte(MARCA_FIM);
+        return total;
+    }
+
+    private static <T> void lerSecao(DataInputStream entrada, Leitor<T> leitor,
+                                     Consumer<List<T>> carregar) throws IOException {
+        List<T> lote = new ArrayList<>(TAMANHO_LOTE);
+        byte marca;
+        while ((marca = entrada.readByte()) == MARCA_REGISTRO) {
+            lote.add(leitor.ler(entrada));
+            if (lote.size() == TAMANHO_LOTE) {
+                carregar.accept(lote);
+                lote = new ArrayList<>(TAMANHO_LOTE);
+            }
+        }
+        if (marca != MARCA_FIM) {
+            throw new IOException("snapshot corrompido (marca " + marca + ")");
+        }
+        if (!lote.isEmpty()) {
+            carregar.accept(lote);
+        }
+    }
+
+    private static int contarInseridos(List<ResultadoInsercao> resultados) {
+        int inseridos = 0;
+        for (ResultadoInsercao resultado : resultados) {
+            if (resultado == ResultadoInsercao.INSERIDO) {
+                inseridos++;
+            }
+        }
+        return inseridos;
+    }
+
+    private static long epochDay(LocalDate data) {
+        return data != null ? data.toEpochDay() : SEM_DATA;
+    }
+
+    private static LocalDate data(long epochDay) {
+        return epochDay != SEM_DATA ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+}
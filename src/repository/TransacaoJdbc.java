@@ -0,0 +1,63 @@
+package repository;
+
+import util.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+final class TransacaoJdbc implements AutoCloseable {
+
+    private final Connection conn;
+    private final boolean propria;
+    private final Savepoint savepoint;
+    private boolean confirmada;
+
+    private TransacaoJdbc(Connection conn, boolean propria, Savepoint savepoint) {
+        this.conn = conn;
+        this.propria = propria;
+        this.savepoint = savepoint;
+    }
+
+    static TransacaoJdbc iniciar(Connection conn) throws SQLException {
+        if (conn == null) {
+            throw new SQLException("Conexão indisponível");
+        }
+
+        if (conn.getAutoCommit()) {
+            conn.setAutoCommit(false);
+            return new TransacaoJdbc(conn, true, null);
+        }
+
+        // Já existe uma transação em andamento: participa dela através de um savepoint
+        return new TransacaoJdbc(conn, false, conn.setSavepoint());
+    }
+
+    void confirmar() throws SQLException {
+        if (propria) {
+            conn.commit();
+            conn.setAutoCommit(true);
+        } else {
+            conn.releaseSavepoint(savepoint);
+        }
+        confirmada = true;
+    }
+
+    @Override
+    public void close() {
+        if (confirmada) {
+            return;
+        }
+
+        try {
+            if (propria) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            } else {
+                conn.rollback(savepoint);
+            }
+        } catch (SQLException e) {
+            Logger.erro("[TransacaoJdbc] Falha ao desfazer transação: " + e.getMessage());
+        }
+    }
+}
@@ -2,11 +2,13 @@ package service;
 
 import model.Livro;
 import model.StatusDisponibilidade;
+import util.CorpoInvalidoException;
 import util.IHttpClient;
 import util.GsonParser;
 import util.Logger;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -17,12 +19,14 @@ public class BibliotecaService {
 
     private final IHttpClient httpClient;
     private final GsonParser jsonParser;
-    private List<Livro> cacheLivros;
+    private final Duration timeout;
+    private volatile List<Livro> cacheLivros;
     private boolean cacheInicializado;
 
-    public BibliotecaService(IHttpClient httpClient, GsonParser jsonParser) {
+    public BibliotecaService(IHttpClient httpClient, GsonParser jsonParser, Duration timeout) {
         this.httpClient = httpClient;
         this.jsonParser = jsonParser;
+        this.timeout = timeout;
         this.cacheLivros = null;
         this.cacheInicializado = false;
     }
@@ -35,6 +39,10 @@ public class BibliotecaService {
 
         Logger.info("[CACHE] Inicializando cache de livros...");
         listarTodos();
+        if (cacheLivros == null) {
+            Logger.aviso("[CACHE] Livros indisponíveis; nova tentativa no próximo acesso");
+            return;
+        }
         cacheInicializado = true;
         Logger.info("[CACHE] Cache de livros inicializado com " +
             (cacheLivros != null ? cacheLivros.size() : 0) + " registros");
@@ -49,7 +57,7 @@ public class BibliotecaService {
         try {
             long startTime = System.currentTimeMillis();
 
-            String jsonResponse = httpClient.get(BIBLIOTECA_BASE_URL);
+            List<Livro> livros = baixar(false);
 
             long duration = System.currentTimeMillis() - startTime;
             double durationSeconds = duration / 1000.0;
@@ -59,8 +67,6 @@ public class BibliotecaService {
                     String.format("%.2f", durationSeconds) + "s (limite: 3.0s)");
             }
 
-            List<Livro> livros = jsonParser.parseList(jsonResponse, Livro.class);
-
             cacheLivros = new ArrayList<>(livros);
 
             return livros;
@@ -71,6 +77,41 @@ public class BibliotecaService {
         }
     }
 
+    private List<Livro> baixar(boolean revalidar) throws IOException {
+        List<Livro> livros = new ArrayList<>();
+        boolean modificado = httpClient.getStream(BIBLIOTECA_BASE_URL, timeout, revalidar,
+            corpo -> {
+                livros.clear();
+                jsonParser.parseListStream(corpo, Livro.class, livros::add);
+                if (revalidar && livros.isEmpty()) {
+                    throw new CorpoInvalidoException("Resposta de livros vazia; cache anterior mantido");
+                }
+            });
+        return modificado ? livros : null;
+    }
+
+    public boolean atualizar() {
+        if (cacheLivros == null) {
+            return !listarTodos().isEmpty();
+        }
+
+        try {
+            List<Livro> livros = baixar(true);
+            if (livros == null) {
+                Logger.debug("[CACHE] Livros não modificados (304)");
+                return false;
+            }
+
+            cacheLivros = new ArrayList<>(livros);
+            Logger.info("[CACHE] Livros atualizados: " + livros.size() + " registros");
+            return true;
+
+        } catch (IOException e) {
+            Logger.erro("Falha ao atualizar livros: " + e.getMessage());
+            return false;
+        }
+    }
+
     public List<Livro> filtrarPorDisponibilidade(StatusDisponibilidade statusDisponibilidade) {
         if (statusDisponibilidade == null) {
             return new ArrayList<>();
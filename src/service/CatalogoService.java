@@ -0,0 +1,100 @@
+package service;
+
+import model.Discente;
+import model.Disciplina;
+import model.Livro;
+import model.MatriculaDetalhada;
+import model.ReservaDetalhada;
+import repository.ICatalogoRepository;
+import util.Logger;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class CatalogoService {
+
+    private final DiscenteService discenteService;
+    private final DisciplinaService disciplinaService;
+    private final BibliotecaService bibliotecaService;
+    private final ICatalogoRepository catalogoRepository;
+
+    private volatile boolean discentesSincronizados;
+    private volatile boolean disciplinasSincronizadas;
+    private volatile boolean livrosSincronizados;
+
+    public CatalogoService(
+            DiscenteService discenteService,
+            DisciplinaService disciplinaService,
+            BibliotecaService bibliotecaService,
+            ICatalogoRepository catalogoRepository) {
+        this.discenteService = discenteService;
+        this.disciplinaService = disciplinaService;
+        this.bibliotecaService = bibliotecaService;
+        this.catalogoRepository = catalogoRepository;
+    }
+
+    public boolean isDisponivel() {
+        return catalogoRepository != null;
+    }
+
+    public void sincronizar() {
+        if (catalogoRepository == null) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+
+        // Lista vazia indica falha no carregamento: não há dados mais novos e o espelho anterior continua valendo.
+        // Durante a sincronização, e se ela falhar, o espelho fica marcado como defasado e as consultas usam os caches
+        List<Discente> discentes = discenteService.listarTodos();
+        if (!discentes.isEmpty()) {
+            discentesSincronizados = false;
+            discentesSincronizados = catalogoRepository.sincronizarDiscentes(discentes);
+        }
+
+        List<Disciplina> disciplinas = disciplinaService.listarTodas();
+        if (!disciplinas.isEmpty()) {
+            disciplinasSincronizadas = false;
+            disciplinasSincronizadas = catalogoRepository.sincronizarDisciplinas(disciplinas);
+        }
+
+        List<Livro> livros = bibliotecaService.listarTodos();
+        if (!livros.isEmpty()) {
+            livrosSincronizados = false;
+            livrosSincronizados = catalogoRepository.sincronizarLivros(livros);
+        }
+
+        if (!discentesSincronizados || !disciplinasSincronizadas || !livrosSincronizados) {
+            Logger.aviso("[CatalogoService] Espelho defasado (discentes: " + discentesSincronizados +
+                ", disciplinas: " + disciplinasSincronizadas + ", livros: " + livrosSincronizados +
+                "); consultas usam os caches em memória");
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        Logger.info("[CatalogoService] Catálogos espelhados no MySQL em " +
+            String.format("%.2f", duration / 1000.0) + "s (" + discentes.size() + " discentes, " +
+            disciplinas.size() + " disciplinas, " + livros.size() + " livros)");
+    }
+
+    public List<MatriculaDetalhada> listarMatriculasDetalhadas(Long discenteId) {
+        if (catalogoRepository == null || !discentesSincronizados || !disciplinasSincronizadas) {
+            return null;
+        }
+        return catalogoRepository.listarMatriculasDetalhadas(discenteId);
+    }
+
+    public List<ReservaDetalhada> listarReservasDetalhadas(String codigoMatricula) {
+        if (catalogoRepository == null || !livrosSincronizados) {
+            return null;
+        }
+        return catalogoRepository.listarReservasDetalhadas(codigoMatricula);
+    }
+
+    public Map<Long, Integer> calcularVagasDisponiveis(Collection<Long> disciplinaIds) {
+        if (catalogoRepository == null || !disciplinasSincronizadas) {
+            return null;
+        }
+        return catalogoRepository.calcularVagasDisponiveis(disciplinaIds);
+    }
+}
@@ -2,11 +2,13 @@ package service;
 
 import model.Discente;
 import model.SituacaoAcademica;
+import util.CorpoInvalidoException;
 import util.IHttpClient;
 import util.GsonParser;
 import util.Logger;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,13 +18,15 @@ public class DiscenteService {
 
     private final IHttpClient httpClient;
     private final GsonParser jsonParser;
-    private final Map<Long, Discente> cache;
-    private java.util.List<Discente> cacheListaCompleta;
+    private final Duration timeout;
+    private volatile Map<Long, Discente> cache;
+    private volatile java.util.List<Discente> cacheListaCompleta;
     private boolean cacheInicializado;
 
-    public DiscenteService(IHttpClient httpClient, GsonParser jsonParser) {
+    public DiscenteService(IHttpClient httpClient, GsonParser jsonParser, Duration timeout) {
         this.httpClient = httpClient;
         this.jsonParser = jsonParser;
+        this.timeout = timeout;
         this.cache = new HashMap<>();
         this.cacheListaCompleta = null;
         this.cacheInicializado = false;
@@ -36,6 +40,10 @@ public class DiscenteService {
 
         Logger.info("[CACHE] Inicializando cache de discentes...");
         listarTodos();
+        if (cacheListaCompleta == null) {
+            Logger.aviso("[CACHE] Discentes indisponíveis; nova tentativa no próximo acesso");
+            return;
+        }
         cacheInicializado = true;
         Logger.info("[CACHE] Cache de discentes inicializado com " + cache.size() + " registros");
     }
@@ -45,9 +53,10 @@ public class DiscenteService {
             inicializarCache();
         }
 
-        if (cache.containsKey(id)) {
+        Discente discente = cache.get(id);
+        if (discente != null) {
             Logger.debug("[CACHE HIT] Discente ID: " + id);
-            return cache.get(id);
+            return discente;
         }
 
         Logger.debug("[CACHE MISS] Discente ID: " + id + " não encontrado no cache");
@@ -63,7 +72,7 @@ public class DiscenteService {
         try {
             long startTime = System.currentTimeMillis();
 
-            String jsonResponse = httpClient.get(DISCENTE_BASE_URL);
+            java.util.List<Discente> discentes = baixar(false);
 
             long duration = System.currentTimeMillis() - startTime;
             double durationSeconds = duration / 1000.0;
@@ -73,14 +82,7 @@ public class DiscenteService {
                     String.format("%.2f", durationSeconds) + "s (limite: 3.0s)");
             }
 
-            java.util.List<Discente> discentes = jsonParser.parseList(jsonResponse, Discente.class);
-
-            cacheListaCompleta = new java.util.ArrayList<>(discentes);
-            for (Discente discente : discentes) {
-                if (discente != null && discente.getId() != null) {
-                    cache.put(discente.getId(), discente);
-                }
-            }
+            armazenar(discentes);
 
             return discentes;
 
@@ -90,6 +92,53 @@ public class DiscenteService {
         }
     }
 
+    private java.util.List<Discente> baixar(boolean revalidar) throws IOException {
+        java.util.List<Discente> discentes = new java.util.ArrayList<>();
+        boolean modificado = httpClient.getStream(DISCENTE_BASE_URL, timeout, revalidar,
+            corpo -> {
+                discentes.clear();
+                jsonParser.parseListStream(corpo, Discente.class, discentes::add);
+                if (revalidar && discentes.isEmpty()) {
+                    throw new CorpoInvalidoException("Resposta de discentes vazia; cache anterior mantido");
+                }
+            });
+        return modificado ? discentes : null;
+    }
+
+    public boolean atualizar() {
+        if (cacheListaCompleta == null) {
+            return !listarTodos().isEmpty();
+        }
+
+        try {
+            java.util.List<Discente> discentes = baixar(true);
+            if (discentes == null) {
+                Logger.debug("[CACHE] Discentes não modificados (304)");
+                return false;
+            }
+
+            armazenar(discentes);
+            Logger.info("[CACHE] Discentes atualizados: " + discentes.size() + " registros");
+            return true;
+
+        } catch (IOException e) {
+            Logger.erro("Falha ao atualizar discentes: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void armazenar(java.util.List<Discente> discentes) {
+        // Monta um novo índice e só então publica, para leitores concorrentes não verem um mapa parcial
+        Map<Long, Discente> indice = new HashMap<>();
+        for (Discente discente : discentes) {
+            if (discente != null && discente.getId() != null) {
+                indice.put(discente.getId(), discente);
+            }
+        }
+        cache = indice;
+        cacheListaCompleta = new java.util.ArrayList<>(discentes);
+    }
+
     public boolean isDiscenteAtivo(Long id) {
         Discente discente = buscarPorId(id);
         return discente != null &&
@@ -1,15 +1,17 @@
 package service;
 
 import model.Disciplina;
+import util.CorpoInvalidoException;
 import util.IHttpClient;
 import util.GsonParser;
 import util.Logger;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class DisciplinaService {
@@ -18,14 +20,16 @@ public class DisciplinaService {
 
     private final IHttpClient httpClient;
     private final GsonParser jsonParser;
+    private final Duration timeout;
     private final Map<String, List<Disciplina>> cacheListaPorCurso;
-    private List<Disciplina> cacheListaCompleta;
+    private volatile List<Disciplina> cacheListaCompleta;
     private boolean cacheInicializado;
 
-    public DisciplinaService(IHttpClient httpClient, GsonParser jsonParser) {
+    public DisciplinaService(IHttpClient httpClient, GsonParser jsonParser, Duration timeout) {
         this.httpClient = httpClient;
         this.jsonParser = jsonParser;
-        this.cacheListaPorCurso = new HashMap<>();
+        this.timeout = timeout;
+        this.cacheListaPorCurso = new ConcurrentHashMap<>();
         this.cacheListaCompleta = null;
         this.cacheInicializado = false;
     }
@@ -38,6 +42,10 @@ public class DisciplinaService {
 
         Logger.info("[CACHE] Inicializando cache de disciplinas...");
         listarTodas();
+        if (cacheListaCompleta == null) {
+            Logger.aviso("[CACHE] Disciplinas indisponíveis; nova tentativa no próximo acesso");
+            return;
+        }
         cacheInicializado = true;
         Logger.info("[CACHE] Cache de disciplinas inicializado com " +
             (cacheListaCompleta != null ? cacheListaCompleta.size() : 0) + " registros");
@@ -52,7 +60,7 @@ public class DisciplinaService {
         try {
             long startTime = System.currentTimeMillis();
 
-            String jsonResponse = httpClient.get(DISCIPLINA_BASE_URL);
+            List<Disciplina> disciplinas = baixar(false);
 
             long duration = System.currentTimeMillis() - startTime;
             double durationSeconds = duration / 1000.0;
@@ -62,8 +70,6 @@ public class DisciplinaService {
                     String.format("%.2f", durationSeconds) + "s (limite: 3.0s)");
             }
 
-            List<Disciplina> disciplinas = jsonParser.parseList(jsonResponse, Disciplina.class);
-
             cacheListaCompleta = new ArrayList<>(disciplinas);
             cacheListaPorCurso.clear();
 
@@ -75,6 +81,45 @@ public class DisciplinaService {
         }
     }
 
+    private List<Disciplina> baixar(boolean revalidar) throws IOException {
+        // Elementos são convertidos conforme o corpo chega, sem montar a resposta inteira em memória;
+        // a lista é zerada a cada leitura porque o cliente pode repetir a requisição após uma falha parcial
+        List<Disciplina> disciplinas = new ArrayList<>();
+        boolean modificado = httpClient.getStream(DISCIPLINA_BASE_URL, timeout, revalidar,
+            corpo -> {
+                disciplinas.clear();
+                jsonParser.parseListStream(corpo, Disciplina.class, disciplinas::add);
+                // Recusada ainda no leitor: assim o cliente não guarda ETag/Last-Modified de um corpo descartado
+                if (revalidar && disciplinas.isEmpty()) {
+                    throw new CorpoInvalidoException("Resposta de disciplinas vazia; cache anterior mantido");
+                }
+            });
+        return modificado ? disciplinas : null;
+    }
+
+    public boolean atualizar() {
+        if (cacheListaCompleta == null) {
+            return !listarTodas().isEmpty();
+        }
+
+        try {
+            List<Disciplina> disciplinas = baixar(true);
+            if (disciplinas == null) {
+                Logger.debug("[CACHE] Disciplinas não modificadas (304)");
+                return false;
+            }
+
+            cacheListaCompleta = new ArrayList<>(disciplinas);
+            cacheListaPorCurso.clear();
+            Logger.info("[CACHE] Disciplinas atualizadas: " + disciplinas.size() + " registros");
+            return true;
+
+        } catch (IOException e) {
+            Logger.erro("Falha ao atualizar disciplinas: " + e.getMessage());
+            return false;
+        }
+    }
+
     public List<Disciplina> filtrarPorCurso(String curso) {
         if (curso == null || curso.trim().isEmpty()) {
             return new ArrayList<>();
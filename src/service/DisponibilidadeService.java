@@ -7,13 +7,24 @@ import exception.LivroIndisponivelException;
 import exception.SemVagasException;
 import model.Discente;
 import model.Disciplina;
+import model.EstadoMatricula;
 import model.Livro;
 import model.SituacaoAcademica;
 import model.StatusDisponibilidade;
+import repository.ExecutorRepositorio;
 import repository.IMatriculaRepository;
 import repository.IReservaRepository;
+import repository.MatriculaRepositoryAssincrono;
+import repository.ReservaRepositoryAssincrono;
 import util.Logger;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
 public class DisponibilidadeService {
 
     private final DiscenteService discenteService;
@@ -21,6 +32,9 @@ public class DisponibilidadeService {
     private final BibliotecaService bibliotecaService;
     private final IMatriculaRepository matriculaRepository;
     private final IReservaRepository reservaRepository;
+    private final MatriculaRepositoryAssincrono matriculasAssincronas;
+    private final ReservaRepositoryAssincrono reservasAssincronas;
+    private final CatalogoService catalogoService;
 
     private static final int LIMITE_MAXIMO_DISCIPLINAS = 5;
 
@@ -29,12 +43,18 @@ public class DisponibilidadeService {
             DisciplinaService disciplinaService,
             BibliotecaService bibliotecaService,
             IMatriculaRepository matriculaRepository,
-            IReservaRepository reservaRepository) {
+            IReservaRepository reservaRepository,
+            MatriculaRepositoryAssincrono matriculasAssincronas,
+            ReservaRepositoryAssincrono reservasAssincronas,
+            CatalogoService catalogoService) {
         this.discenteService = discenteService;
         this.disciplinaService = disciplinaService;
         this.bibliotecaService = bibliotecaService;
         this.matriculaRepository = matriculaRepository;
         this.reservaRepository = reservaRepository;
+        this.matriculasAssincronas = matriculasAssincronas;
+        this.reservasAssincronas = reservasAssincronas;
+        this.catalogoService = catalogoService;
     }
 
     public int calcularVagasDisponiveis(String disciplinaId) {
@@ -55,23 +75,78 @@ public class DisponibilidadeService {
                 return 0;
             }
 
-            int matriculasNoBanco = matriculaRepository.contarMatriculasPorDisciplina(disciplinaId);
+            int matriculasNoBanco = matriculaRepository.contarMatriculasPorDisciplina(id);
+
+            return calcularVagas(disciplina, matriculasNoBanco);
+
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public Map<Long, Integer> calcularVagasDisponiveis(List<Disciplina> disciplinas) {
+        Map<Long, Integer> vagasPorDisciplina = new HashMap<>();
+        if (disciplinas == null || disciplinas.isEmpty()) {
+            return vagasPorDisciplina;
+        }
+
+        List<Long> idsComVagas = new ArrayList<>();
+        for (Disciplina disciplina : disciplinas) {
+            if (disciplina.getId() != null && disciplina.getVagas() != null && disciplina.getVagas() > 0) {
+                idsComVagas.add(disciplina.getId());
+            }
+        }
 
-            int vagasDisponiveis = vagasOriginais - matriculasNoBanco;
+        Map<Long, Integer> vagasNoBanco = catalogoService.calcularVagasDisponiveis(idsComVagas);
+        if (vagasNoBanco != null && vagasNoBanco.keySet().containsAll(idsComVagas)) {
+            for (Disciplina disciplina : disciplinas) {
+                if (disciplina.getId() != null) {
+                    vagasPorDisciplina.put(disciplina.getId(), vagasNoBanco.getOrDefault(disciplina.getId(), 0));
+                }
+            }
+            return vagasPorDisciplina;
+        }
 
-            vagasDisponiveis = Math.max(0, vagasDisponiveis);
+        Map<Long, Integer> matriculasPorDisciplina = matriculaRepository.contarMatriculasPorDisciplinas(idsComVagas);
 
-            Logger.debug("Disciplina " + disciplinaId + ": " + vagasOriginais +
-                " vagas originais - " + matriculasNoBanco + " matrículas = " +
-                vagasDisponiveis + " vagas disponíveis");
+        for (Disciplina disciplina : disciplinas) {
+            if (disciplina.getId() == null) {
+                continue;
+            }
+            int matriculasNoBanco = matriculasPorDisciplina.getOrDefault(disciplina.getId(), 0);
+            vagasPorDisciplina.put(disciplina.getId(), calcularVagas(disciplina, matriculasNoBanco));
+        }
 
-            return vagasDisponiveis;
+        return vagasPorDisciplina;
+    }
 
+    public int obterVagasOfertadas(String disciplinaId) {
+        try {
+            Disciplina disciplina = disciplinaService.buscarPorId(Long.parseLong(disciplinaId));
+            if (disciplina == null || disciplina.getVagas() == null) {
+                return 0;
+            }
+            return Math.max(0, disciplina.getVagas());
         } catch (NumberFormatException e) {
             return 0;
         }
     }
 
+    private int calcularVagas(Disciplina disciplina, int matriculasNoBanco) {
+        Integer vagasOriginais = disciplina.getVagas();
+        if (vagasOriginais == null || vagasOriginais <= 0) {
+            return 0;
+        }
+
+        int vagasDisponiveis = Math.max(0, vagasOriginais - matriculasNoBanco);
+
+        Logger.debug("Disciplina " + disciplina.getId() + ": " + vagasOriginais +
+            " vagas originais - " + matriculasNoBanco + " matrículas = " +
+            vagasDisponiveis + " vagas disponíveis");
+
+        return vagasDisponiveis;
+    }
+
     public boolean verificarLivroDisponivel(String livroId) {
         if (livroId == null || livroId.trim().isEmpty()) {
             return false;
@@ -79,6 +154,7 @@ public class DisponibilidadeService {
 
         try {
             Long id = Long.parseLong(livroId);
+            CompletableFuture<Boolean> reservadoFuturo = reservasAssincronas.livroEstaReservado(id);
             Livro livro = bibliotecaService.buscarPorId(id);
 
             if (livro == null) {
@@ -93,7 +169,7 @@ public class DisponibilidadeService {
                 return false;
             }
 
-            boolean reservadoNoBanco = reservaRepository.livroEstaReservado(livroId);
+            boolean reservadoNoBanco = ExecutorRepositorio.aguardar(reservadoFuturo);
 
             if (reservadoNoBanco) {
                 Logger.debug("Livro " + livroId + " está DISPONIVEL no microsserviço mas JÁ RESERVADO no MySQL");
@@ -108,7 +184,7 @@ public class DisponibilidadeService {
         }
     }
 
-    public void validarMatricula(String discenteId, String disciplinaId)
+    public EstadoMatricula validarMatricula(String discenteId, String disciplinaId)
             throws DiscenteInativoException, CursoIncompativelException,
                    LimiteMatriculasExcedidoException, SemVagasException {
 
@@ -122,13 +198,17 @@ public class DisponibilidadeService {
 
         try {
             Long idDiscente = Long.parseLong(discenteId);
+            Long idDisciplina = Long.parseLong(disciplinaId);
+
+            CompletableFuture<EstadoMatricula> estadoFuturo =
+                matriculasAssincronas.consultarEstadoMatricula(idDiscente, idDisciplina);
+
             Discente discente = discenteService.buscarPorId(idDiscente);
 
             if (discente == null) {
                 throw new IllegalArgumentException("Discente não encontrado: " + discenteId);
             }
 
-            Long idDisciplina = Long.parseLong(disciplinaId);
             Disciplina disciplina = disciplinaService.buscarPorId(idDisciplina);
 
             if (disciplina == null) {
@@ -141,7 +221,13 @@ public class DisponibilidadeService {
                 );
             }
 
-            int totalMatriculasDiscente = matriculaRepository.contarMatriculasPorDiscente(discenteId);
+            EstadoMatricula estado = ExecutorRepositorio.aguardar(estadoFuturo);
+
+            if (estado == null) {
+                throw new IllegalArgumentException("Não foi possível consultar as matrículas no banco de dados");
+            }
+
+            int totalMatriculasDiscente = estado.getTotalMatriculasDiscente();
 
             if (totalMatriculasDiscente >= LIMITE_MAXIMO_DISCIPLINAS) {
                 throw new LimiteMatriculasExcedidoException(
@@ -151,7 +237,7 @@ public class DisponibilidadeService {
                 );
             }
 
-            int vagasDisponiveis = calcularVagasDisponiveis(disciplinaId);
+            int vagasDisponiveis = calcularVagas(disciplina, estado.getTotalMatriculasDisciplina());
 
             if (vagasDisponiveis <= 0) {
                 throw new SemVagasException(
@@ -176,11 +262,46 @@ public class DisponibilidadeService {
             Logger.debug("Validação aprovada para matrícula: Discente " + discenteId +
                 ", Disciplina " + disciplinaId + ", Vagas: " + vagasDisponiveis);
 
+            return estado;
+
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("IDs inválidos (devem ser numéricos)");
         }
     }
 
+    public List<Livro> listarLivrosDisponiveis() {
+        CompletableFuture<Set<Long>> reservadosFuturo = reservasAssincronas.listarLivrosReservados();
+        List<Livro> livros = bibliotecaService.listarTodos();
+        return filtrarLivrosDisponiveis(livros, ExecutorRepositorio.aguardar(reservadosFuturo));
+    }
+
+    public List<Livro> filtrarLivrosDisponiveis(List<Livro> livros) {
+        if (livros == null || livros.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return filtrarLivrosDisponiveis(livros, reservaRepository.listarLivrosReservados());
+    }
+
+    private List<Livro> filtrarLivrosDisponiveis(List<Livro> livros, Set<Long> reservadosNoBanco) {
+        List<Livro> disponiveis = new ArrayList<>();
+        if (livros == null || livros.isEmpty()) {
+            return disponiveis;
+        }
+
+        for (Livro livro : livros) {
+            if (livro.getId() != null &&
+                livro.getStatusDisponibilidade() == StatusDisponibilidade.DISPONIVEL &&
+                !reservadosNoBanco.contains(livro.getId())) {
+                disponiveis.add(livro);
+            }
+        }
+
+        Logger.debug(disponiveis.size() + " de " + livros.size() + " livros disponíveis para reserva (" +
+            reservadosNoBanco.size() + " reservados no MySQL)");
+
+        return disponiveis;
+    }
+
     public void validarReservaLivro(String livroId) throws LivroIndisponivelException {
         if (livroId == null || livroId.trim().isEmpty()) {
             throw new IllegalArgumentException("ID do livro é inválido");
@@ -188,6 +309,7 @@ public class DisponibilidadeService {
 
         try {
             Long id = Long.parseLong(livroId);
+            CompletableFuture<Boolean> reservadoFuturo = reservasAssincronas.livroEstaReservado(id);
             Livro livro = bibliotecaService.buscarPorId(id);
 
             if (livro == null) {
@@ -204,7 +326,7 @@ public class DisponibilidadeService {
                 );
             }
 
-            boolean reservadoNoBanco = reservaRepository.livroEstaReservado(livroId);
+            boolean reservadoNoBanco = ExecutorRepositorio.aguardar(reservadoFuturo);
 
             if (reservadoNoBanco) {
                 throw new LivroIndisponivelException(
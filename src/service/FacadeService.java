@@ -4,10 +4,13 @@ import model.Discente;
 import model.Disciplina;
 import model.Livro;
 import model.Matricula;
+import model.MatriculaDetalhada;
+import model.ReservaDetalhada;
 import model.ReservaLivro;
 import util.Logger;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
@@ -18,19 +21,35 @@ public class FacadeService {
     private final BibliotecaService bibliotecaService;
     private final DisponibilidadeService disponibilidadeService;
     private final GestaoAcademicaService gestaoAcademicaService;
+    private final CatalogoService catalogoService;
 
     public FacadeService(
             DiscenteService discenteService,
             DisciplinaService disciplinaService,
             BibliotecaService bibliotecaService,
             DisponibilidadeService disponibilidadeService,
-            GestaoAcademicaService gestaoAcademicaService) {
+            GestaoAcademicaService gestaoAcademicaService,
+            CatalogoService catalogoService) {
 
         this.discenteService = discenteService;
         this.disciplinaService = disciplinaService;
         this.bibliotecaService = bibliotecaService;
         this.disponibilidadeService = disponibilidadeService;
         this.gestaoAcademicaService = gestaoAcademicaService;
+        this.catalogoService = catalogoService;
+    }
+
+    public void atualizarCatalogos() {
+        long startTime = System.currentTimeMillis();
+
+        // Operador não curto-circuitado: os três catálogos são sempre revalidados
+        boolean alterado = discenteService.atualizar() | disciplinaService.atualizar() | bibliotecaService.atualizar();
+        if (alterado) {
+            catalogoService.sincronizar();
+        }
+
+        Logger.debug("[FacadeService] Catálogos revalidados em " + (System.currentTimeMillis() - startTime) +
+            " ms" + (alterado ? " (alterados)" : " (sem alterações)"));
     }
 
     public void inicializarCaches() {
@@ -58,6 +77,8 @@ public class FacadeService {
             Thread.currentThread().interrupt();
         }
 
+        catalogoService.sincronizar();
+
         long duration = System.currentTimeMillis() - startTime;
         Logger.sistema("Caches inicializados em " + String.format("%.2f", duration / 1000.0) + "s");
         Logger.sistema("Dados carregados e prontos para uso!\n");
@@ -91,10 +112,18 @@ public class FacadeService {
         return bibliotecaService.listarTodos();
     }
 
+    public List<Livro> listarLivrosDisponiveis() {
+        return disponibilidadeService.listarLivrosDisponiveis();
+    }
+
     public int calcularVagasDisponiveis(String disciplinaId) {
         return disponibilidadeService.calcularVagasDisponiveis(disciplinaId);
     }
 
+    public Map<Long, Integer> calcularVagasDisponiveis(List<Disciplina> disciplinas) {
+        return disponibilidadeService.calcularVagasDisponiveis(disciplinas);
+    }
+
     public boolean verificarLivroDisponivel(String livroId) {
         return disponibilidadeService.verificarLivroDisponivel(livroId);
     }
@@ -111,7 +140,23 @@ public class FacadeService {
         return gestaoAcademicaService.listarMatriculasDiscente(discenteId);
     }
 
-    public List<ReservaLivro> listarReservasDiscente(String discenteId) {
+    public CompletableFuture<List<Matricula>> listarMatriculasDiscenteAssincrono(String discenteId) {
+        return gestaoAcademicaService.listarMatriculasDiscenteAssincrono(discenteId);
+    }
+
+    public List<MatriculaDetalhada> listarMatriculasDetalhadas(String discenteId) {
+        try {
+            return catalogoService.listarMatriculasDetalhadas(Long.parseLong(discenteId));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public List<ReservaDetalhada> listarReservasDetalhadas(String codigoMatricula) {
+        return catalogoService.listarReservasDetalhadas(codigoMatricula);
+    }
+
+    public List<ReservaLivro> listarReservasDiscente(Long discenteId) {
         return gestaoAcademicaService.listarReservasDiscente(discenteId);
     }
 
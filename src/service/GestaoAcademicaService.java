@@ -5,37 +5,49 @@ import exception.DiscenteInativoException;
 import exception.LimiteMatriculasExcedidoException;
 import exception.LivroIndisponivelException;
 import exception.SemVagasException;
+import model.EstadoMatricula;
 import model.Matricula;
 import model.ReservaLivro;
+import repository.IGerenciadorTransacoes;
 import repository.IMatriculaRepository;
 import repository.IReservaRepository;
+import repository.IUnidadeDeTrabalho;
+import repository.MatriculaRepositoryAssincrono;
+import repository.ResultadoInsercao;
 import util.GeradorMatricula;
 import util.Logger;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class GestaoAcademicaService {
 
     private final IMatriculaRepository matriculaRepository;
     private final IReservaRepository reservaRepository;
     private final DisponibilidadeService disponibilidadeService;
+    private final IGerenciadorTransacoes gerenciadorTransacoes;
+    private final MatriculaRepositoryAssincrono matriculasAssincronas;
 
     public GestaoAcademicaService(
             IMatriculaRepository matriculaRepository,
             IReservaRepository reservaRepository,
-            DisponibilidadeService disponibilidadeService) {
+            DisponibilidadeService disponibilidadeService,
+            IGerenciadorTransacoes gerenciadorTransacoes,
+            MatriculaRepositoryAssincrono matriculasAssincronas) {
 
         this.matriculaRepository = matriculaRepository;
         this.reservaRepository = reservaRepository;
         this.disponibilidadeService = disponibilidadeService;
+        this.gerenciadorTransacoes = gerenciadorTransacoes;
+        this.matriculasAssincronas = matriculasAssincronas;
     }
 
     public boolean simularMatricula(String discenteId, String disciplinaId) {
-        try {
-            disponibilidadeService.validarMatricula(discenteId, disciplinaId);
+        try (IUnidadeDeTrabalho unidade = gerenciadorTransacoes.iniciar()) {
+            EstadoMatricula estado = disponibilidadeService.validarMatricula(discenteId, disciplinaId);
 
-            if (matriculaRepository.existeMatricula(discenteId, disciplinaId)) {
+            if (estado.isJaMatriculado()) {
                 Logger.erro("Discente já matriculado nesta disciplina.");
                 return false;
             }
@@ -44,15 +56,30 @@ public class GestaoAcademicaService {
 
             Matricula matricula = Matricula.nova(codigoMatricula, discenteId, disciplinaId, LocalDate.now());
 
-            boolean sucesso = matriculaRepository.adicionar(matricula);
+            int vagasOfertadas = disponibilidadeService.obterVagasOfertadas(disciplinaId);
+            ResultadoInsercao resultado = matriculaRepository.adicionarComVaga(matricula, vagasOfertadas);
 
-            if (sucesso) {
-                Logger.sucesso("Matrícula realizada: " + codigoMatricula);
-                Logger.dica("Use o código " + codigoMatricula + " para consultar ou cancelar esta matrícula.");
-                return true;
-            } else {
-                Logger.erro("Erro ao salvar matrícula no banco de dados.");
-                return false;
+            if (resultado == ResultadoInsercao.INSERIDO && !unidade.confirmar()) {
+                resultado = ResultadoInsercao.ERRO;
+            }
+
+            switch (resultado) {
+                case INSERIDO:
+                    Logger.sucesso("Matrícula realizada: " + codigoMatricula);
+                    Logger.dica("Use o código " + codigoMatricula + " para consultar ou cancelar esta matrícula.");
+                    return true;
+                case SEM_VAGAS:
+                    Logger.erro("Disciplina sem vagas disponíveis.");
+                    return false;
+                case DUPLICADO:
+                    Logger.erro("Discente já matriculado nesta disciplina.");
+                    return false;
+                case CONFLITO:
+                    Logger.erro("Outra matrícula concorrente estava em andamento. Tente novamente.");
+                    return false;
+                default:
+                    Logger.erro("Erro ao salvar matrícula no banco de dados.");
+                    return false;
             }
 
         } catch (DiscenteInativoException e) {
@@ -95,7 +122,11 @@ public class GestaoAcademicaService {
         return matriculaRepository.listarPorDiscente(discenteId);
     }
 
-    public List<ReservaLivro> listarReservasDiscente(String discenteId) {
+    public CompletableFuture<List<Matricula>> listarMatriculasDiscenteAssincrono(String discenteId) {
+        return matriculasAssincronas.listarPorDiscente(Long.valueOf(discenteId.trim()));
+    }
+
+    public List<ReservaLivro> listarReservasDiscente(Long discenteId) {
         return reservaRepository.listarPorDiscente(discenteId);
     }
 
@@ -104,32 +135,44 @@ public class GestaoAcademicaService {
     }
 
     public boolean simularReservaLivro(String codigoMatricula, String livroId) {
-        Matricula matricula = matriculaRepository.buscarPorCodigo(codigoMatricula);
-        if (matricula == null) {
-            Logger.erro("Código de matrícula não encontrado.");
-            return false;
-        }
+        try (IUnidadeDeTrabalho unidade = gerenciadorTransacoes.iniciar()) {
+            Matricula matricula = matriculaRepository.buscarPorCodigo(codigoMatricula);
+            if (matricula == null) {
+                Logger.erro("Código de matrícula não encontrado.");
+                return false;
+            }
 
-        String discenteId = matricula.getDiscenteId();
+            Long discenteId = matricula.getDiscenteId();
 
-        try {
             disponibilidadeService.validarReservaLivro(livroId);
+            Long idLivro = Long.valueOf(livroId.trim());
 
-            if (reservaRepository.existeReserva(discenteId, livroId)) {
+            if (reservaRepository.existeReserva(discenteId, idLivro)) {
                 Logger.erro("Você já reservou este livro.");
                 return false;
             }
 
-            ReservaLivro reserva = ReservaLivro.nova(discenteId, livroId, LocalDate.now());
+            ReservaLivro reserva = ReservaLivro.nova(discenteId, idLivro, LocalDate.now());
 
-            boolean sucesso = reservaRepository.adicionar(reserva);
+            ResultadoInsercao resultado = reservaRepository.reservar(reserva);
 
-            if (sucesso) {
-                Logger.sucesso("Livro reservado.");
-                return true;
-            } else {
-                Logger.erro("Erro ao registrar reserva.");
-                return false;
+            if (resultado == ResultadoInsercao.INSERIDO && !unidade.confirmar()) {
+                resultado = ResultadoInsercao.ERRO;
+            }
+
+            switch (resultado) {
+                case INSERIDO:
+                    Logger.sucesso("Livro reservado.");
+                    return true;
+                case DUPLICADO:
+                    Logger.erro("Livro já está reservado por outro discente.");
+                    return false;
+                case CONFLITO:
+                    Logger.erro("Outra reserva deste livro estava em andamento. Tente novamente.");
+                    return false;
+                default:
+                    Logger.erro("Erro ao registrar reserva.");
+                    return false;
             }
 
         } catch (LivroIndisponivelException e) {
@@ -142,26 +185,33 @@ public class GestaoAcademicaService {
     }
 
     public boolean cancelarReservaLivro(String codigoMatricula, String livroId) {
-        Matricula matricula = matriculaRepository.buscarPorCodigo(codigoMatricula);
-        if (matricula == null) {
-            Logger.erro("Código de matrícula não encontrado.");
-            return false;
-        }
+        try (IUnidadeDeTrabalho unidade = gerenciadorTransacoes.iniciar()) {
+            Matricula matricula = matriculaRepository.buscarPorCodigo(codigoMatricula);
+            if (matricula == null) {
+                Logger.erro("Código de matrícula não encontrado.");
+                return false;
+            }
 
-        String discenteId = matricula.getDiscenteId();
+            Long discenteId = matricula.getDiscenteId();
+            Long idLivro = Long.valueOf(livroId.trim());
 
-        if (!reservaRepository.existeReserva(discenteId, livroId)) {
-            Logger.erro("Reserva não encontrada.");
-            return false;
-        }
+            if (!reservaRepository.existeReserva(discenteId, idLivro)) {
+                Logger.erro("Reserva não encontrada.");
+                return false;
+            }
 
-        boolean sucesso = reservaRepository.remover(discenteId, livroId);
+            boolean sucesso = reservaRepository.remover(discenteId, idLivro) && unidade.confirmar();
 
-        if (sucesso) {
-            Logger.sucesso("Reserva cancelada.");
-            return true;
-        }
+            if (sucesso) {
+                Logger.sucesso("Reserva cancelada.");
+                return true;
+            }
+
+            return false;
 
-        return false;
+        } catch (IllegalArgumentException e) {
+            Logger.erro("Dados inválidos: " + e.getMessage());
+            return false;
+        }
     }
 }
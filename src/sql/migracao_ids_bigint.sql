@@ -0,0 +1,28 @@
+-- ========================================
+-- MIGRAÇÃO: ids de discente, disciplina e livro de VARCHAR(50) para BIGINT
+-- Para bancos criados com a versão anterior do schema.sql.
+-- ========================================
+
+USE sistema_academico;
+
+-- 1. Verificar se existem ids não numéricos (devem retornar 0 antes de continuar)
+SELECT COUNT(*) AS ids_invalidos_matriculas FROM matriculas
+WHERE discente_id NOT REGEXP '^[0-9]+$' OR disciplina_id NOT REGEXP '^[0-9]+$';
+
+SELECT COUNT(*) AS ids_invalidos_reservas FROM reservas_livros
+WHERE discente_id NOT REGEXP '^[0-9]+$' OR livro_id NOT REGEXP '^[0-9]+$';
+
+SELECT COUNT(*) AS ids_invalidos_vagas FROM vagas_disciplinas
+WHERE disciplina_id NOT REGEXP '^[0-9]+$';
+
+-- 2. Converter as colunas (os índices e constraints UNIQUE são reconstruídos automaticamente)
+ALTER TABLE matriculas
+    MODIFY discente_id BIGINT NOT NULL,
+    MODIFY disciplina_id BIGINT NOT NULL;
+
+ALTER TABLE reservas_livros
+    MODIFY discente_id BIGINT NOT NULL,
+    MODIFY livro_id BIGINT NOT NULL;
+
+ALTER TABLE vagas_disciplinas
+    MODIFY disciplina_id BIGINT NOT NULL;
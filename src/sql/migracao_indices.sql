@@ -0,0 +1,20 @@
+-- ========================================
+-- MIGRAÇÃO: remoção de índices redundantes e não utilizados
+-- Para bancos criados antes do ajuste de índices no schema.sql.
+-- idx_matricula_codigo, idx_matricula_discente e idx_reserva_discente são
+-- prefixos das chaves únicas: são os mesmos que DB_DIAGNOSTICO=aplicar
+-- removeria. Os índices de data não são usados por nenhuma consulta dos
+-- repositórios, mas o diagnóstico só os reporta e nunca os remove: este
+-- script os remove por decisão explícita de quem o executa.
+-- ========================================
+
+USE sistema_academico;
+
+ALTER TABLE matriculas
+    DROP INDEX idx_matricula_codigo,
+    DROP INDEX idx_matricula_discente,
+    DROP INDEX idx_matricula_data;
+
+ALTER TABLE reservas_livros
+    DROP INDEX idx_reserva_discente,
+    DROP INDEX idx_reserva_data;
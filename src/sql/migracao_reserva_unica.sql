@@ -0,0 +1,18 @@
+-- ========================================
+-- MIGRAÇÃO: uma reserva por livro
+-- Para bancos criados antes de uk_reserva_livro existir no schema.sql.
+-- Troca o índice comum em livro_id por uma chave única. Se algum livro
+-- tiver mais de uma reserva, o ALTER falha com erro 1062: resolva os
+-- casos listados pela primeira consulta e rode de novo.
+-- ========================================
+
+USE sistema_academico;
+
+SELECT livro_id, COUNT(*) AS reservas
+FROM reservas_livros
+GROUP BY livro_id
+HAVING COUNT(*) > 1;
+
+ALTER TABLE reservas_livros
+    ADD CONSTRAINT uk_reserva_livro UNIQUE (livro_id),
+    DROP INDEX idx_reserva_livro;
@@ -0,0 +1,24 @@
+-- ========================================
+-- MIGRAÇÃO: tabela resumo_matriculas_discente
+-- Para bancos criados antes da tabela existir no schema.sql.
+-- Cria a tabela e preenche o resumo a partir das matrículas existentes.
+-- ========================================
+
+USE sistema_academico;
+
+CREATE TABLE IF NOT EXISTS resumo_matriculas_discente (
+    discente_id BIGINT NOT NULL PRIMARY KEY,
+    total INT NOT NULL,
+    matriculas JSON NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+INSERT INTO resumo_matriculas_discente (discente_id, total, matriculas)
+SELECT * FROM (
+    SELECT discente_id, COUNT(*) AS total,
+           JSON_ARRAYAGG(JSON_OBJECT('id', id, 'codigo', codigo_matricula,
+                                     'disciplina', disciplina_id, 'data', data_matricula)) AS matriculas
+    FROM matriculas
+    GROUP BY discente_id
+) AS novo
+ON DUPLICATE KEY UPDATE total = novo.total, matriculas = novo.matriculas;
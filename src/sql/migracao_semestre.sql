@@ -0,0 +1,13 @@
+-- ========================================
+-- MIGRAÇÃO: coluna gerada semestre em matriculas
+-- Para bancos criados antes da coluna existir no schema.sql.
+-- Necessária para listarPorSemestre e arquivarSemestre.
+-- ========================================
+
+USE sistema_academico;
+
+ALTER TABLE matriculas
+    ADD COLUMN semestre SMALLINT UNSIGNED AS (
+        IF(LEFT(codigo_matricula, 3) REGEXP '^[0-9]{3}$', CAST(LEFT(codigo_matricula, 3) AS UNSIGNED), 0)
+    ) STORED NOT NULL,
+    ADD INDEX idx_matricula_semestre (semestre, id);
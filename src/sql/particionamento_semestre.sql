@@ -0,0 +1,62 @@
+-- ========================================
+-- PARTICIONAMENTO OPCIONAL: matriculas por semestre (RANGE na coluna semestre)
+-- Requer a coluna semestre (schema.sql ou migracao_semestre.sql).
+--
+-- Com as partições, consultas com "semestre = ?" (listarPorSemestre) leem apenas
+-- a partição do semestre, e arquivarSemestre troca a partição inteira por uma tabela
+-- matriculas_arquivo_<AAS> (ALTER TABLE ... EXCHANGE PARTITION) em vez de copiar e
+-- apagar linha a linha. Sem particionamento, arquivarSemestre usa INSERT ... SELECT
+-- seguido de DELETE em uma transação.
+--
+-- Convenção esperada pelo repositório: uma partição por semestre, chamada p<AAS>,
+-- com VALUES LESS THAN (<AAS> + 1). Ex.: 2025.1 -> p251 VALUES LESS THAN (252).
+-- ========================================
+
+USE sistema_academico;
+
+-- 1. O MySQL exige que toda chave única contenha a coluna de particionamento.
+--    O código da matrícula já determina o semestre, então (codigo_matricula, semestre)
+--    continua único por código. A unicidade discente/disciplina passa a valer por
+--    semestre; como o código é gerado com a data atual, matrículas novas continuam
+--    sujeitas à mesma restrição.
+ALTER TABLE matriculas
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, semestre),
+    DROP INDEX codigo_matricula,
+    ADD UNIQUE KEY uk_matricula_codigo_semestre (codigo_matricula, semestre),
+    DROP INDEX uk_matricula_discente_disciplina,
+    ADD UNIQUE KEY uk_matricula_discente_disciplina (discente_id, disciplina_id, semestre);
+
+-- 2. Partições: semestres anteriores ficam em pantigos; pfuturo recebe o que ainda
+--    não tem partição própria. Ajuste a faixa ao período em uso.
+ALTER TABLE matriculas
+    PARTITION BY RANGE (semestre) (
+        PARTITION pantigos VALUES LESS THAN (241),
+        PARTITION p241 VALUES LESS THAN (242),
+        PARTITION p242 VALUES LESS THAN (243),
+        PARTITION p251 VALUES LESS THAN (252),
+        PARTITION p252 VALUES LESS THAN (253),
+        PARTITION p261 VALUES LESS THAN (262),
+        PARTITION p262 VALUES LESS THAN (263),
+        PARTITION pfuturo VALUES LESS THAN MAXVALUE
+    );
+
+-- 3. Antes de cada semestre novo, separe-o de pfuturo (exemplo para 2027.1):
+-- ALTER TABLE matriculas REORGANIZE PARTITION pfuturo INTO (
+--     PARTITION p271 VALUES LESS THAN (272),
+--     PARTITION pfuturo VALUES LESS THAN MAXVALUE
+-- );
+
+-- ========================================
+-- CONSULTAS ÚTEIS
+-- ========================================
+
+-- Linhas por partição
+-- SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS FROM information_schema.PARTITIONS
+-- WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'matriculas';
+
+-- Confirmar a poda de partições (coluna partitions deve listar só p251)
+-- EXPLAIN SELECT * FROM matriculas WHERE semestre = 251;
+
+-- Desfazer o particionamento
+-- ALTER TABLE matriculas REMOVE PARTITIONING;
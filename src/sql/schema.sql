@@ -18,19 +18,54 @@ USE sistema_academico;
 CREATE TABLE IF NOT EXISTS matriculas (
     id INT AUTO_INCREMENT PRIMARY KEY,
     codigo_matricula VARCHAR(20) NOT NULL UNIQUE,
-    discente_id VARCHAR(50) NOT NULL,
-    disciplina_id VARCHAR(50) NOT NULL,
+    discente_id BIGINT NOT NULL,
+    disciplina_id BIGINT NOT NULL,
     data_matricula DATE NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    -- Ano e semestre (AAS) extraídos do código AASNNNN; 0 para códigos fora do padrão.
+    -- Chave de particionamento opcional (ver particionamento_semestre.sql)
+    semestre SMALLINT UNSIGNED AS (
+        IF(LEFT(codigo_matricula, 3) REGEXP '^[0-9]{3}$', CAST(LEFT(codigo_matricula, 3) AS UNSIGNED), 0)
+    ) STORED NOT NULL,
     
     -- Constraint: um discente não pode se matricular duas vezes na mesma disciplina
     CONSTRAINT uk_matricula_discente_disciplina UNIQUE (discente_id, disciplina_id),
     
-    -- Índices para melhorar performance de consultas
-    INDEX idx_matricula_codigo (codigo_matricula),
-    INDEX idx_matricula_discente (discente_id),
+    -- Índices para melhorar performance de consultas. Buscas por codigo_matricula
+    -- e por discente_id usam as chaves únicas acima (prefixo à esquerda)
     INDEX idx_matricula_disciplina (disciplina_id),
-    INDEX idx_matricula_data (data_matricula)
+    INDEX idx_matricula_semestre (semestre, id)
+);
+
+-- ========================================
+-- TABELA: vagas_disciplinas
+-- Saldo de vagas por disciplina. A linha é criada na primeira matrícula
+-- (vagas ofertadas - matrículas existentes) e decrementada com UPDATE
+-- condicional na mesma transação do INSERT em matriculas, evitando que
+-- matrículas concorrentes ultrapassem o limite sem travar a tabela inteira.
+-- ========================================
+CREATE TABLE IF NOT EXISTS vagas_disciplinas (
+    disciplina_id BIGINT NOT NULL PRIMARY KEY,
+    vagas_ofertadas INT NOT NULL,
+    vagas_restantes INT NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    CONSTRAINT ck_vagas_restantes CHECK (vagas_restantes >= 0)
+);
+
+-- ========================================
+-- TABELA: resumo_matriculas_discente
+-- Total e lista (JSON) das matrículas de cada discente, recalculados na
+-- mesma transação de cada escrita em matriculas. A linha do discente é
+-- travada antes da escrita, serializando matrículas do mesmo discente.
+-- Contagem e listagem por discente viram leituras pela chave primária.
+-- ========================================
+CREATE TABLE IF NOT EXISTS resumo_matriculas_discente (
+    discente_id BIGINT NOT NULL PRIMARY KEY,
+    total INT NOT NULL,
+    matriculas JSON NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
 
 -- ========================================
@@ -39,18 +74,53 @@ CREATE TABLE IF NOT EXISTS matriculas (
 -- ========================================
 CREATE TABLE IF NOT EXISTS reservas_livros (
     id INT AUTO_INCREMENT PRIMARY KEY,
-    discente_id VARCHAR(50) NOT NULL,
-    livro_id VARCHAR(50) NOT NULL,
+    discente_id BIGINT NOT NULL,
+    livro_id BIGINT NOT NULL,
     data_reserva DATE NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     
     -- Constraint: um discente não pode reservar o mesmo livro duas vezes
     CONSTRAINT uk_reserva_discente_livro UNIQUE (discente_id, livro_id),
     
-    -- Índices para melhorar performance de consultas
-    INDEX idx_reserva_discente (discente_id),
-    INDEX idx_reserva_livro (livro_id),
-    INDEX idx_reserva_data (data_reserva)
+    -- Constraint: cada livro só pode estar reservado por um discente. É ela
+    -- que decide reservas concorrentes do mesmo livro (erro 1062): um
+    -- SELECT ... FOR UPDATE num livro sem reservas só travaria o gap.
+    -- Buscas por discente_id usam a chave acima (prefixo à esquerda)
+    CONSTRAINT uk_reserva_livro UNIQUE (livro_id)
+);
+
+-- ========================================
+-- TABELAS: catalogo_discentes, catalogo_disciplinas, catalogo_livros
+-- Espelho dos catálogos das APIs externas, sincronizado pelo CatalogoService
+-- após o carregamento dos caches. Permite que as consultas de vagas e de
+-- matrículas/reservas com nomes sejam resolvidas com JOIN no próprio MySQL.
+-- A coluna sincronizacao marca a geração da última carga: linhas que não
+-- vieram na carga mais recente são removidas na mesma transação.
+-- ========================================
+CREATE TABLE IF NOT EXISTS catalogo_discentes (
+    id BIGINT NOT NULL PRIMARY KEY,
+    nome VARCHAR(255),
+    curso VARCHAR(255),
+    modalidade VARCHAR(100),
+    situacao_academica VARCHAR(20),
+    sincronizacao BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS catalogo_disciplinas (
+    id BIGINT NOT NULL PRIMARY KEY,
+    nome VARCHAR(255),
+    curso VARCHAR(255),
+    vagas INT,
+    sincronizacao BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS catalogo_livros (
+    id BIGINT NOT NULL PRIMARY KEY,
+    titulo VARCHAR(500),
+    autor VARCHAR(255),
+    ano INT,
+    status_disponibilidade VARCHAR(20),
+    sincronizacao BIGINT NOT NULL
 );
 
 -- ========================================
@@ -59,13 +129,13 @@ CREATE TABLE IF NOT EXISTS reservas_livros (
 -- ========================================
 
 -- INSERT INTO matriculas (discente_id, disciplina_id, data_matricula) VALUES
--- ('1', '1', '2025-01-15'),
--- ('1', '2', '2025-01-15'),
--- ('2', '1', '2025-01-16');
+-- (1, 1, '2025-01-15'),
+-- (1, 2, '2025-01-15'),
+-- (2, 1, '2025-01-16');
 
 -- INSERT INTO reservas_livros (discente_id, livro_id, data_reserva) VALUES
--- ('1', '1', '2025-01-15'),
--- ('2', '2', '2025-01-16');
+-- (1, 1, '2025-01-15'),
+-- (2, 2, '2025-01-16');
 
 -- ========================================
 -- CONSULTAS ÚTEIS PARA VERIFICAÇÃO
@@ -84,15 +154,23 @@ CREATE TABLE IF NOT EXISTS reservas_livros (
 -- SELECT * FROM reservas_livros ORDER BY created_at DESC;
 
 -- Verificar se um livro está reservado
--- SELECT COUNT(*) as reservado FROM reservas_livros WHERE livro_id = '1';
+-- SELECT COUNT(*) as reservado FROM reservas_livros WHERE livro_id = 1;
 
 -- ========================================
 -- LIMPEZA AUTOMÁTICA
 -- ========================================
--- ATENÇÃO: As tabelas são AUTOMATICAMENTE limpas ao encerrar a aplicação!
--- O sistema executa TRUNCATE em todas as tabelas via shutdown hook.
--- Isso garante que os dados não sejam persistidos entre execuções.
+-- O shutdown hook segue PERSISTENCIA: manter (padrão) não apaga nada,
+-- snapshot grava matrículas/reservas em arquivo e executa TRUNCATE, e
+-- limpar executa TRUNCATE em todas as tabelas sem guardar os dados.
+
+-- Semestres arquivados (arquivarSemestre) ficam em tabelas matriculas_arquivo_<AAS>,
+-- que não são limpas no encerramento.
 
 -- Para limpar manualmente (se necessário):
 -- TRUNCATE TABLE reservas_livros;
 -- TRUNCATE TABLE matriculas;
+-- TRUNCATE TABLE vagas_disciplinas;
+-- TRUNCATE TABLE resumo_matriculas_discente;
+-- TRUNCATE TABLE catalogo_discentes;
+-- TRUNCATE TABLE catalogo_disciplinas;
+-- TRUNCATE TABLE catalogo_livros;
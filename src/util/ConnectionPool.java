@@ -0,0 +1,580 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class ConnectionPool {
+
+    private static final int TIMEOUT_VALIDACAO_SEGUNDOS = 2;
+    private static final long VALIDACAO_DISPENSADA_MS = 500;
+    private static final long INTERVALO_MANUTENCAO_MS = 30_000;
+
+    private final String nome;
+    private final String url;
+    private final Properties propriedades;
+    private final int tamanhoMinimo;
+    private final int tamanhoMaximo;
+    private final long tempoOciosoMaximoMs;
+    private final long tempoEsperaMaximoMs;
+    private final long limiteVazamentoMs;
+    private final boolean rastrearOrigemVazamentos;
+    private final int tamanhoCacheInstrucoes;
+    private final MetricasSql metricas;
+
+    private final Semaphore permissoes;
+    private final LinkedBlockingDeque<ConexaoFisica> ociosas = new LinkedBlockingDeque<>();
+    private final Set<Emprestimo> emprestadas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConexoes = new AtomicInteger();
+    private final ScheduledExecutorService manutencao;
+
+    private final LongAdder criadas = new LongAdder();
+    private final LongAdder destruidas = new LongAdder();
+    private final LongAdder emprestimos = new LongAdder();
+    private final LongAdder esperasEsgotadas = new LongAdder();
+    private final LongAdder validacoesFalhas = new LongAdder();
+    private final LongAdder vazamentos = new LongAdder();
+    private final LongAdder tempoEsperaNanos = new LongAdder();
+    private final LongAdder cacheInstrucoesAcertos = new LongAdder();
+    private final LongAdder cacheInstrucoesFalhas = new LongAdder();
+
+    private volatile boolean fechado;
+
+    public ConnectionPool(String nome, String url, String usuario, String senha,
+                          Properties propriedadesDriver,
+                          int tamanhoMinimo, int tamanhoMaximo,
+                          long tempoOciosoMaximoMs, long tempoEsperaMaximoMs, long limiteVazamentoMs,
+                          boolean rastrearOrigemVazamentos, int tamanhoCacheInstrucoes, MetricasSql metricas) {
+        if (tamanhoMaximo < 1) {
+            throw new IllegalArgumentException("Tamanho máximo do pool deve ser ao menos 1");
+        }
+
+        this.nome = nome;
+        this.url = url;
+        this.propriedades = new Properties();
+        if (propriedadesDriver != null) {
+            this.propriedades.putAll(propriedadesDriver);
+        }
+        this.propriedades.setProperty("user", usuario);
+        this.propriedades.setProperty("password", senha);
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.tamanhoMinimo = Math.max(0, Math.min(tamanhoMinimo, tamanhoMaximo));
+        this.tempoOciosoMaximoMs = tempoOciosoMaximoMs;
+        this.tempoEsperaMaximoMs = tempoEsperaMaximoMs;
+        this.limiteVazamentoMs = limiteVazamentoMs;
+        this.rastrearOrigemVazamentos = limiteVazamentoMs > 0 && rastrearOrigemVazamentos;
+        this.tamanhoCacheInstrucoes = Math.max(0, tamanhoCacheInstrucoes);
+        this.metricas = metricas;
+        this.permissoes = new Semaphore(tamanhoMaximo, true);
+
+        this.manutencao = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ConnectionPool-" + nome + "-Manutencao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.manutencao.scheduleWithFixedDelay(this::executarManutencao,
+            INTERVALO_MANUTENCAO_MS, INTERVALO_MANUTENCAO_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void aquecer() throws SQLException {
+        while (totalConexoes.get() < tamanhoMinimo) {
+            ociosas.offerLast(criar());
+        }
+        Logger.debug("[ConnectionPool] Pool '" + nome + "' aquecido com " + ociosas.size() + " conexões.");
+    }
+
+    public Connection emprestar() throws SQLException {
+        if (fechado) {
+            throw new SQLException("Pool de conexões '" + nome + "' encerrado");
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            if (!permissoes.tryAcquire(tempoEsperaMaximoMs, TimeUnit.MILLISECONDS)) {
+                esperasEsgotadas.increment();
+                throw new SQLTimeoutException("Tempo de espera por conexão esgotado (" +
+                    tempoEsperaMaximoMs + " ms, pool '" + nome + "' com " + tamanhoMaximo + " conexões)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando conexão do pool", e);
+        }
+        tempoEsperaNanos.add(System.nanoTime() - inicio);
+
+        try {
+            Emprestimo emprestimo = new Emprestimo(obterConexaoValida());
+            emprestadas.add(emprestimo);
+            emprestimos.increment();
+            return emprestimo.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    private ConexaoFisica obterConexaoValida() throws SQLException {
+        ConexaoFisica fisica;
+        while ((fisica = ociosas.pollFirst()) != null) {
+            if (validar(fisica)) {
+                return fisica;
+            }
+            validacoesFalhas.increment();
+            destruir(fisica);
+        }
+        return criar();
+    }
+
+    private boolean validar(ConexaoFisica fisica) {
+        if (System.currentTimeMillis() - fisica.ultimoUso < VALIDACAO_DISPENSADA_MS) {
+            return true;
+        }
+        try {
+            return fisica.conexao.isValid(TIMEOUT_VALIDACAO_SEGUNDOS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private ConexaoFisica criar() throws SQLException {
+        Connection conexao = DriverManager.getConnection(url, propriedades);
+        totalConexoes.incrementAndGet();
+        criadas.increment();
+        return new ConexaoFisica(conexao);
+    }
+
+    private void destruir(ConexaoFisica fisica) {
+        totalConexoes.decrementAndGet();
+        destruidas.increment();
+        DatabaseConnection.fecharRecursos(fisica.conexao);
+    }
+
+    private void devolver(Emprestimo emprestimo) {
+        if (!emprestadas.remove(emprestimo)) {
+            return;
+        }
+
+        ConexaoFisica fisica = emprestimo.fisica;
+        try {
+            fisica.liberarInstrucoes();
+
+            if (!fisica.conexao.getAutoCommit()) {
+                fisica.conexao.rollback();
+                fisica.conexao.setAutoCommit(true);
+            }
+
+            if (fechado || fisica.conexao.isClosed()) {
+                destruir(fisica);
+            } else {
+                fisica.ultimoUso = System.currentTimeMillis();
+                ociosas.offerFirst(fisica);
+            }
+        } catch (SQLException e) {
+            Logger.debug("[ConnectionPool] Conexão descartada na devolução: " + e.getMessage());
+            destruir(fisica);
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    private void executarManutencao() {
+        try {
+            long agora = System.currentTimeMillis();
+
+            Iterator<ConexaoFisica> iterador = ociosas.descendingIterator();
+            while (iterador.hasNext() && totalConexoes.get() > tamanhoMinimo) {
+                ConexaoFisica fisica = iterador.next();
+                if (agora - fisica.ultimoUso > tempoOciosoMaximoMs && ociosas.remove(fisica)) {
+                    destruir(fisica);
+                }
+            }
+
+            if (!fechado) {
+                aquecer();
+            }
+
+            if (limiteVazamentoMs > 0) {
+                for (Emprestimo emprestimo : emprestadas) {
+                    if (!emprestimo.vazamentoReportado && agora - emprestimo.emprestadaEm > limiteVazamentoMs) {
+                        emprestimo.vazamentoReportado = true;
+                        vazamentos.increment();
+                        Logger.aviso("[ConnectionPool] Possível vazamento: conexão emprestada há " +
+                            (agora - emprestimo.emprestadaEm) + " ms sem devolução" +
+                            descreverOrigem(emprestimo.origem));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            Logger.debug("[ConnectionPool] Falha na manutenção do pool: " + e.getMessage());
+        }
+    }
+
+    private static String descreverOrigem(Throwable origem) {
+        if (origem == null) {
+            return "";
+        }
+        for (StackTraceElement elemento : origem.getStackTrace()) {
+            String classe = elemento.getClassName();
+            if (!classe.startsWith("util.") && !classe.startsWith("java.") && !classe.startsWith("jdk.")) {
+                return " (obtida em " + elemento + ")";
+            }
+        }
+        return "";
+    }
+
+    public Estatisticas getEstatisticas() {
+        return new Estatisticas(
+            totalConexoes.get(),
+            emprestadas.size(),
+            ociosas.size(),
+            permissoes.getQueueLength(),
+            criadas.sum(),
+            destruidas.sum(),
+            emprestimos.sum(),
+            esperasEsgotadas.sum(),
+            validacoesFalhas.sum(),
+            vazamentos.sum(),
+            tempoEsperaNanos.sum(),
+            cacheInstrucoesAcertos.sum(),
+            cacheInstrucoesFalhas.sum()
+        );
+    }
+
+    public void fechar() {
+        fechado = true;
+        manutencao.shutdownNow();
+
+        ConexaoFisica fisica;
+        while ((fisica = ociosas.pollFirst()) != null) {
+            destruir(fisica);
+        }
+
+        if (!emprestadas.isEmpty()) {
+            Logger.debug("[ConnectionPool] " + emprestadas.size() +
+                " conexões ainda emprestadas serão fechadas na devolução.");
+        }
+    }
+
+    private final class ConexaoFisica {
+        private final Connection conexao;
+        private final Map<String, InstrucaoCacheada> instrucoes;
+        private volatile long ultimoUso;
+        private volatile Connection proxyAtual;
+
+        private ConexaoFisica(Connection conexao) {
+            this.conexao = conexao;
+            this.ultimoUso = System.currentTimeMillis();
+            this.instrucoes = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, InstrucaoCacheada> maisAntiga) {
+                    if (size() <= tamanhoCacheInstrucoes) {
+                        return false;
+                    }
+                    maisAntiga.getValue().descartar();
+                    return true;
+                }
+            };
+        }
+
+        private PreparedStatement prepararInstrucao(String sql) throws SQLException {
+            if (tamanhoCacheInstrucoes == 0) {
+                return conexao.prepareStatement(sql);
+            }
+
+            InstrucaoCacheada instrucao = instrucoes.get(sql);
+            if (instrucao != null && instrucao.descartada) {
+                instrucoes.remove(sql);
+                instrucao = null;
+            }
+            if (instrucao != null && !instrucao.emUso) {
+                cacheInstrucoesAcertos.increment();
+                instrucao.emUso = true;
+                return instrucao.proxy;
+            }
+
+            cacheInstrucoesFalhas.increment();
+            if (instrucao != null) {
+                return conexao.prepareStatement(sql);
+            }
+
+            instrucao = new InstrucaoCacheada(this, conexao.prepareStatement(sql));
+            instrucao.emUso = true;
+            instrucoes.put(sql, instrucao);
+            return instrucao.proxy;
+        }
+
+        private void liberarInstrucoes() {
+            for (InstrucaoCacheada instrucao : instrucoes.values()) {
+                if (instrucao.emUso) {
+                    instrucao.liberar();
+                }
+            }
+        }
+    }
+
+    private static final class InstrucaoCacheada implements InvocationHandler {
+        private final ConexaoFisica fisica;
+        private final PreparedStatement instrucao;
+        private final PreparedStatement proxy;
+        private boolean emUso;
+        private boolean descartada;
+
+        private InstrucaoCacheada(ConexaoFisica fisica, PreparedStatement instrucao) {
+            this.fisica = fisica;
+            this.instrucao = instrucao;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        private void liberar() {
+            emUso = false;
+            try {
+                instrucao.clearParameters();
+                instrucao.clearBatch();
+            } catch (SQLException e) {
+                descartar();
+            }
+        }
+
+        private void descartar() {
+            descartada = true;
+            if (!emUso) {
+                DatabaseConnection.fecharRecursos(instrucao);
+            }
+        }
+
+        @Override
+        public Object invoke(Object alvo, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "close":
+                    if (emUso) {
+                        if (descartada) {
+                            emUso = false;
+                            instrucao.close();
+                        } else {
+                            liberar();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return !emUso;
+                case "getConnection":
+                    return fisica.proxyAtual;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            if (!emUso) {
+                throw new SQLException("PreparedStatement já foi fechado");
+            }
+
+            try {
+                return metodo.invoke(instrucao, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private final class Emprestimo implements InvocationHandler {
+        private final ConexaoFisica fisica;
+        private final long emprestadaEm;
+        private final Throwable origem;
+        private final Connection proxy;
+        private volatile boolean devolvida;
+        private volatile boolean vazamentoReportado;
+
+        private Emprestimo(ConexaoFisica fisica) {
+            this.fisica = fisica;
+            this.emprestadaEm = System.currentTimeMillis();
+            // Capturar a pilha custa caro a cada empréstimo: só com DB_POOL_LEAK_TRACE ativo
+            this.origem = rastrearOrigemVazamentos ? new Throwable() : null;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+            fisica.proxyAtual = proxy;
+        }
+
+        @Override
+        public Object invoke(Object alvo, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "close":
+                    if (!devolvida) {
+                        devolvida = true;
+                        devolver(this);
+                    }
+                    return null;
+                case "isClosed":
+                    if (devolvida) {
+                        return true;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexaoPool[" + nome + "]@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    break;
+            }
+
+            if (devolvida) {
+                throw new SQLException("Conexão já devolvida ao pool");
+            }
+
+            if ("prepareStatement".equals(metodo.getName()) && args.length == 1) {
+                return medir(fisica.prepararInstrucao((String) args[0]), (String) args[0]);
+            }
+
+            Object resultado;
+            try {
+                resultado = metodo.invoke(fisica.conexao, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (metricas != null && resultado instanceof Statement) {
+                if (resultado instanceof PreparedStatement && "prepareStatement".equals(metodo.getName())) {
+                    return metricas.instrumentar((PreparedStatement) resultado, (String) args[0]);
+                }
+                if ("createStatement".equals(metodo.getName())) {
+                    return metricas.instrumentar((Statement) resultado);
+                }
+            }
+            return resultado;
+        }
+
+        private PreparedStatement medir(PreparedStatement instrucao, String sql) {
+            return metricas != null ? metricas.instrumentar(instrucao, sql) : instrucao;
+        }
+    }
+
+    public static final class Estatisticas {
+        private final int total;
+        private final int emUso;
+        private final int ociosas;
+        private final int aguardando;
+        private final long criadas;
+        private final long destruidas;
+        private final long emprestimos;
+        private final long esperasEsgotadas;
+        private final long validacoesFalhas;
+        private final long vazamentos;
+        private final long tempoEsperaNanos;
+        private final long cacheInstrucoesAcertos;
+        private final long cacheInstrucoesFalhas;
+
+        private Estatisticas(int total, int emUso, int ociosas, int aguardando,
+                             long criadas, long destruidas, long emprestimos, long esperasEsgotadas,
+                             long validacoesFalhas, long vazamentos, long tempoEsperaNanos,
+                             long cacheInstrucoesAcertos, long cacheInstrucoesFalhas) {
+            this.total = total;
+            this.emUso = emUso;
+            this.ociosas = ociosas;
+            this.aguardando = aguardando;
+            this.criadas = criadas;
+            this.destruidas = destruidas;
+            this.emprestimos = emprestimos;
+            this.esperasEsgotadas = esperasEsgotadas;
+            this.validacoesFalhas = validacoesFalhas;
+            this.vazamentos = vazamentos;
+            this.tempoEsperaNanos = tempoEsperaNanos;
+            this.cacheInstrucoesAcertos = cacheInstrucoesAcertos;
+            this.cacheInstrucoesFalhas = cacheInstrucoesFalhas;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getEmUso() {
+            return emUso;
+        }
+
+        public int getOciosas() {
+            return ociosas;
+        }
+
+        public int getAguardando() {
+            return aguardando;
+        }
+
+        public long getCriadas() {
+            return criadas;
+        }
+
+        public long getDestruidas() {
+            return destruidas;
+        }
+
+        public long getEmprestimos() {
+            return emprestimos;
+        }
+
+        public long getEsperasEsgotadas() {
+            return esperasEsgotadas;
+        }
+
+        public long getValidacoesFalhas() {
+            return validacoesFalhas;
+        }
+
+        public long getVazamentos() {
+            return vazamentos;
+        }
+
+        public long getCacheInstrucoesAcertos() {
+            return cacheInstrucoesAcertos;
+        }
+
+        public long getCacheInstrucoesFalhas() {
+            return cacheInstrucoesFalhas;
+        }
+
+        public double getTempoMedioEsperaMs() {
+            return emprestimos == 0 ? 0.0 : (tempoEsperaNanos / 1_000_000.0) / emprestimos;
+        }
+
+        @Override
+        public String toString() {
+            return "Estatisticas{" +
+                    "total=" + total +
+                    ", emUso=" + emUso +
+                    ", ociosas=" + ociosas +
+                    ", aguardando=" + aguardando +
+                    ", criadas=" + criadas +
+                    ", destruidas=" + destruidas +
+                    ", emprestimos=" + emprestimos +
+                    ", esperasEsgotadas=" + esperasEsgotadas +
+                    ", validacoesFalhas=" + validacoesFalhas +
+                    ", vazamentos=" + vazamentos +
+                    ", tempoMedioEsperaMs=" + String.format("%.3f", getTempoMedioEsperaMs()) +
+                    ", cacheInstrucoesAcertos=" + cacheInstrucoesAcertos +
+                    ", cacheInstrucoesFalhas=" + cacheInstrucoesFalhas +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package util;
+
+import java.io.IOException;
+
+public class CorpoInvalidoException extends IOException {
+
+    public CorpoInvalidoException(String mensagem) {
+        super(mensagem);
+    }
+
+    public CorpoInvalidoException(String mensagem, Throwable causa) {
+        super(mensagem, causa);
+    }
+}
@@ -1,8 +1,13 @@
 package util;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class DatabaseConnection {
 
@@ -16,11 +21,35 @@ public class DatabaseConnection {
         }
     }
 
+    private final MetricasSql metricasSql;
+    private final ConnectionPool pool;
+    private final RoteadorReplicas roteadorReplicas;
+    private final ThreadLocal<Connection> conexaoVinculada = new ThreadLocal<>();
+    private final List<Class<?>> origensInstrucoes = new CopyOnWriteArrayList<>();
+
     public DatabaseConnection() {
-        try (Connection conn = DriverManager.getConnection(
+        this.metricasSql = EnvironmentConfig.isMetricasSqlAtivas() ? new MetricasSql() : null;
+        if (metricasSql != null) {
+            metricasSql.registrarInstrucoes(RoteadorReplicas.class);
+        }
+
+        this.pool = new ConnectionPool(
+                "primario",
                 EnvironmentConfig.getDatabaseUrl(),
                 EnvironmentConfig.getDatabaseUser(),
-                EnvironmentConfig.getDatabasePassword())) {
+                EnvironmentConfig.getDatabasePassword(),
+                propriedadesDriver(),
+                EnvironmentConfig.getPoolTamanhoMinimo(),
+                EnvironmentConfig.getPoolTamanhoMaximo(),
+                EnvironmentConfig.getPoolTempoOciosoMs(),
+                EnvironmentConfig.getPoolTempoEsperaMs(),
+                EnvironmentConfig.getPoolLimiteVazamentoMs(),
+                EnvironmentConfig.isPoolRastreamentoVazamentos(),
+                EnvironmentConfig.getCacheInstrucoesTamanho(),
+                metricasSql);
+
+        try {
+            pool.aquecer();
             Logger.debug("[DatabaseConnection] Banco de dados conectado com sucesso.");
         } catch (SQLException e) {
             Logger.erro("[DatabaseConnection] Erro ao conectar ao banco de dados:");
@@ -28,20 +57,115 @@ public class DatabaseConnection {
             Logger.erro("USER: " + EnvironmentConfig.getDatabaseUser());
             Logger.erro("Mensagem: " + e.getMessage());
         }
+
+        this.roteadorReplicas = new RoteadorReplicas(
+                EnvironmentConfig.getDatabaseReplicaUrls(),
+                propriedadesDriver(),
+                EnvironmentConfig.getReplicaAtrasoMaximoSegundos(),
+                EnvironmentConfig.isReplicaSemMonitoramentoPermitida(),
+                EnvironmentConfig.getReplicaIntervaloVerificacaoMs(),
+                metricasSql);
+    }
+
+    private static Properties propriedadesDriver() {
+        Properties propriedades = new Properties();
+        propriedades.setProperty("rewriteBatchedStatements", "true");
+        if (EnvironmentConfig.isInstrucoesPreparadasNoServidor()) {
+            propriedades.setProperty("useServerPrepStmts", "true");
+        }
+        return propriedades;
     }
 
     public Connection getConnection() {
+        Connection vinculada = conexaoVinculada.get();
+        if (vinculada != null) {
+            return semFechamento(vinculada);
+        }
+
         try {
-            return DriverManager.getConnection(
-                    EnvironmentConfig.getDatabaseUrl(),
-                    EnvironmentConfig.getDatabaseUser(),
-                    EnvironmentConfig.getDatabasePassword());
+            return pool.emprestar();
         } catch (SQLException e) {
             Logger.erro("[DatabaseConnection] Erro ao conectar: " + e.getMessage());
             return null;
         }
     }
 
+    public Connection getConnectionLeitura() {
+        if (conexaoVinculada.get() != null || !roteadorReplicas.possuiReplicas()) {
+            return getConnection();
+        }
+
+        Connection replica = roteadorReplicas.emprestar();
+        return replica != null ? replica : getConnection();
+    }
+
+    public Connection getConnectionDedicada() {
+        try {
+            return pool.emprestar();
+        } catch (SQLException e) {
+            Logger.erro("[DatabaseConnection] Erro ao conectar: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void vincularConexao(Connection conn) {
+        conexaoVinculada.set(conn);
+    }
+
+    public void desvincularConexao() {
+        conexaoVinculada.remove();
+    }
+
+    public boolean possuiConexaoVinculada() {
+        return conexaoVinculada.get() != null;
+    }
+
+    private static Connection semFechamento(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            (proxy, metodo, args) -> {
+                if ("close".equals(metodo.getName())) {
+                    return null;
+                }
+                try {
+                    return metodo.invoke(conn, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+
+    public ConnectionPool.Estatisticas getEstatisticasPool() {
+        return pool.getEstatisticas();
+    }
+
+    public MetricasSql getMetricasSql() {
+        return metricasSql;
+    }
+
+    public void registrarInstrucoes(Class<?> origem) {
+        if (!origensInstrucoes.contains(origem)) {
+            origensInstrucoes.add(origem);
+        }
+        if (metricasSql != null) {
+            metricasSql.registrarInstrucoes(origem);
+        }
+    }
+
+    public List<Class<?>> getOrigensInstrucoes() {
+        return new ArrayList<>(origensInstrucoes);
+    }
+
+    public void fechar() {
+        Logger.debug("[DatabaseConnection] Encerrando pool: " + pool.getEstatisticas());
+        if (metricasSql != null && EnvironmentConfig.isMetricasSqlRelatorioNoEncerramento()) {
+            Logger.info("[DatabaseConnection] Métricas por instrução SQL:\n" + metricasSql.relatorio());
+        }
+        roteadorReplicas.fechar();
+        pool.fechar();
+    }
+
     public static void fecharRecursos(AutoCloseable... recursos) {
         for (AutoCloseable recurso : recursos) {
             if (recurso != null) {
@@ -54,6 +178,29 @@ public class DatabaseConnection {
         }
     }
 
+    public long contarRegistros(String tabela) {
+        if (!tabela.matches("\\w+")) {
+            Logger.erro("[DatabaseConnection] Nome de tabela inválido: " + tabela);
+            return -1;
+        }
+
+        Connection conn = getConnectionDedicada();
+        if (conn == null) {
+            Logger.erro("[DatabaseConnection] Sem conexão para contar registros de " + tabela);
+            return -1;
+        }
+
+        try (java.sql.Statement stmt = conn.createStatement();
+             java.sql.ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + tabela)) {
+            return rs.next() ? rs.getLong(1) : -1;
+        } catch (SQLException e) {
+            Logger.erro("[DatabaseConnection] Erro ao contar registros de " + tabela + ": " + e.getMessage());
+            return -1;
+        } finally {
+            fecharRecursos(conn);
+        }
+    }
+
     public void limparTodasTabelas() {
         Logger.sistema("\n" + "═".repeat(60));
         Logger.sistema("ENCERRANDO SISTEMA...");
@@ -80,6 +227,17 @@ public class DatabaseConnection {
             Logger.debug("Limpando tabela 'matriculas'...");
             stmt.execute("TRUNCATE TABLE matriculas");
 
+            Logger.debug("Limpando tabela 'vagas_disciplinas'...");
+            stmt.execute("TRUNCATE TABLE vagas_disciplinas");
+
+            Logger.debug("Limpando tabela 'resumo_matriculas_discente'...");
+            stmt.execute("TRUNCATE TABLE resumo_matriculas_discente");
+
+            Logger.debug("Limpando tabelas de catálogo...");
+            stmt.execute("TRUNCATE TABLE catalogo_discentes");
+            stmt.execute("TRUNCATE TABLE catalogo_disciplinas");
+            stmt.execute("TRUNCATE TABLE catalogo_livros");
+
             stmt.execute("SET FOREIGN_KEY_CHECKS = 1");
 
             Logger.sucesso("Todas as tabelas foram limpas com sucesso!");
@@ -0,0 +1,123 @@
+package util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+public final class DecodificacaoHttp {
+
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private DecodificacaoHttp() {
+    }
+
+    public static void consumir(String url, InputStream corpo, String codificacao,
+                                EstatisticasHttp estatisticas, IHttpClient.LeitorCorpo leitor) throws IOException {
+        // corpo entra no try: um cabeçalho gzip corrompido ou codificação não suportada não pode vazar a conexão
+        try (InputStream entrada = corpo) {
+            ContadorBytes recebidos = new ContadorBytes(entrada);
+            ContadorBytes decodificados = new ContadorBytes(decodificar(recebidos, codificacao));
+
+            try (Reader reader = new InputStreamReader(decodificados, StandardCharsets.UTF_8)) {
+                leitor.ler(reader);
+            }
+
+            if (estatisticas != null) {
+                estatisticas.registrar(url, normalizar(codificacao), recebidos.getTotal(), decodificados.getTotal());
+            }
+        }
+    }
+
+    public static String lerTexto(Reader reader) throws IOException {
+        StringBuilder texto = new StringBuilder(BUFFER_SIZE);
+        char[] buffer = new char[BUFFER_SIZE];
+        int lidos;
+        while ((lidos = reader.read(buffer)) != -1) {
+            texto.append(buffer, 0, lidos);
+        }
+        return texto.toString();
+    }
+
+    public static InputStream decodificar(InputStream corpo, String codificacao) throws IOException {
+        String normalizada = normalizar(codificacao);
+        switch (normalizada) {
+            case "":
+            case "identity":
+                return corpo;
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(corpo, BUFFER_SIZE);
+            case "deflate":
+                return inflar(corpo);
+            default:
+                throw new IOException("Content-Encoding não suportado: " + codificacao);
+        }
+    }
+
+    private static InputStream inflar(InputStream corpo) throws IOException {
+        // "deflate" deveria vir com cabeçalho zlib (RFC 1950), mas alguns servidores enviam o fluxo cru
+        PushbackInputStream entrada = new PushbackInputStream(corpo, 2);
+        int cmf = entrada.read();
+        int flg = cmf == -1 ? -1 : entrada.read();
+        if (flg != -1) {
+            entrada.unread(flg);
+        }
+        if (cmf != -1) {
+            entrada.unread(cmf);
+        }
+
+        boolean zlib = cmf != -1 && flg != -1 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        return new InflaterInputStream(entrada, new Inflater(!zlib), BUFFER_SIZE);
+    }
+
+    private static String normalizar(String codificacao) {
+        return codificacao == null ? "" : codificacao.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static final class ContadorBytes extends FilterInputStream {
+        private long total;
+
+        public ContadorBytes(InputStream entrada) {
+            super(entrada);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int lido = super.read();
+            if (lido != -1) {
+                total++;
+            }
+            return lido;
+        }
+
+        @Override
+        public int read(byte[] buffer, int inicio, int tamanho) throws IOException {
+            int lidos = super.read(buffer, inicio, tamanho);
+            if (lidos > 0) {
+                total += lidos;
+            }
+            return lidos;
+        }
+
+        @Override
+        public long skip(long quantidade) throws IOException {
+            long pulados = super.skip(quantidade);
+            total += pulados;
+            return pulados;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class DiagnosticoConsultas {
+
+    private static final String SQL_TABELAS =
+        "SELECT TABLE_NAME FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_TYPE = 'BASE TABLE'";
+
+    private static final String SQL_INDICES =
+        "SELECT TABLE_NAME, INDEX_NAME, NON_UNIQUE, COLUMN_NAME FROM information_schema.STATISTICS " +
+        "WHERE TABLE_SCHEMA = DATABASE() ORDER BY TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX";
+
+    private static final String SQL_REMOVER_INDICE = "ALTER TABLE %s DROP INDEX %s";
+
+    private static final Pattern LISTA_IN = Pattern.compile("IN\\s*\\(%s\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern REFERENCIA_TABELA = Pattern.compile(
+        "\\b(?:FROM|JOIN|UPDATE|INTO)\\s+(\\w+)(?:\\s+(?:AS\\s+)?(\\w+))?", Pattern.CASE_INSENSITIVE);
+    private static final Set<String> PALAVRAS_RESERVADAS = Set.of(
+        "WHERE", "JOIN", "LEFT", "RIGHT", "INNER", "ON", "ORDER", "GROUP", "SET", "LIMIT",
+        "FOR", "USING", "FORCE", "AS", "VALUES", "SELECT", "UNION", "HAVING", "PARTITION");
+
+    private final DatabaseConnection databaseConnection;
+
+    public DiagnosticoConsultas(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+    }
+
+    public int executar(boolean aplicar) {
+        Map<String, String> instrucoes = new LinkedHashMap<>();
+        for (Class<?> origem : databaseConnection.getOrigensInstrucoes()) {
+            instrucoes.putAll(InstrucoesSql.declaradas(origem));
+        }
+
+        Connection conn = databaseConnection.getConnectionDedicada();
+        if (conn == null) {
+            Logger.erro("[DiagnosticoConsultas] Sem conexão para o diagnóstico.");
+            return -1;
+        }
+
+        try {
+            Set<String> tabelas = carregarTabelas(conn);
+            Map<String, List<Indice>> indices = carregarIndices(conn);
+            Map<String, Set<String>> indicesCandidatos = new HashMap<>();
+            int alertas = 0;
+            int analisadas = 0;
+            int falhas = 0;
+
+            for (Map.Entry<String, String> instrucao : instrucoes.entrySet()) {
+                String sql = prepararParaExplain(instrucao.getValue());
+                if (sql == null) {
+                    continue;
+                }
+
+                try {
+                    alertas += analisarPlano(conn, instrucao.getKey(), sql, tabelas, indicesCandidatos);
+                    analisadas++;
+                } catch (SQLException e) {
+                    Logger.aviso("[DiagnosticoConsultas] " + instrucao.getKey() + " não analisada: " + e.getMessage());
+                    alertas++;
+                    falhas++;
+                }
+            }
+
+            // Só a redundância por prefixo é comprovada; "não candidato" depende dos valores fictícios do EXPLAIN
+            Set<Indice> redundantes = new TreeSet<>();
+            int naoCandidatos = 0;
+            for (Map.Entry<String, List<Indice>> tabela : indices.entrySet()) {
+                for (Indice indice : tabela.getValue()) {
+                    Indice cobertor = indiceCobertor(indice, tabela.getValue());
+                    if (cobertor != null) {
+                        Logger.aviso("[DiagnosticoConsultas] Índice redundante " + indice +
+                            ": colunas cobertas por " + cobertor.nome);
+                        redundantes.add(indice);
+                    } else if (!indice.unico && indicesCandidatos.containsKey(indice.tabela) &&
+                            !indicesCandidatos.get(indice.tabela).contains(indice.nome)) {
+                        Logger.dica("[DiagnosticoConsultas] Índice " + indice +
+                            " não foi candidato em nenhuma instrução analisada (verifique antes de remover)");
+                        naoCandidatos++;
+                    }
+                }
+            }
+            alertas += redundantes.size() + naoCandidatos;
+
+            Logger.info("[DiagnosticoConsultas] " + analisadas + " instruções analisadas, " +
+                alertas + " alertas, " + redundantes.size() + " índices redundantes, " +
+                naoCandidatos + " não candidatos");
+
+            if (aplicar && !redundantes.isEmpty()) {
+                if (falhas > 0) {
+                    Logger.aviso("[DiagnosticoConsultas] " + falhas +
+                        " instruções não puderam ser analisadas; nenhum índice removido.");
+                } else {
+                    removerIndices(conn, redundantes);
+                }
+            }
+
+            return alertas;
+
+        } catch (SQLException e) {
+            Logger.erro("[DiagnosticoConsultas] Erro ao consultar o dicionário de dados: " + e.getMessage());
+            return -1;
+        } finally {
+            DatabaseConnection.fecharRecursos(conn);
+        }
+    }
+
+    private static String prepararParaExplain(String sql) {
+        String preparado = LISTA_IN.matcher(sql).replaceAll("IN (?)");
+        if (preparado.contains("%s")) {
+            return null;
+        }
+
+        String inicio = preparado.trim().toUpperCase(Locale.ROOT);
+        if (inicio.startsWith("SELECT") || inicio.startsWith("UPDATE") || inicio.startsWith("DELETE")) {
+            return preparado;
+        }
+        if (inicio.startsWith("INSERT") && inicio.contains(" SELECT ")) {
+            return preparado;
+        }
+        return null;
+    }
+
+    private int analisarPlano(Connection conn, String nome, String sql, Set<String> tabelas,
+                              Map<String, Set<String>> indicesCandidatos) throws SQLException {
+        Map<String, String> apelidos = resolverApelidos(sql, tabelas);
+        boolean filtrada = sql.toUpperCase(Locale.ROOT).contains(" WHERE ");
+        int alertas = 0;
+
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            vincularParametros(stmt, sql);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String tabela = apelidos.get(rs.getString("table"));
+                    if (tabela == null) {
+                        continue;
+                    }
+
+                    String acesso = rs.getString("type");
+                    String possiveis = rs.getString("possible_keys");
+                    String chave = rs.getString("key");
+                    String extra = rs.getString("Extra");
+
+                    Set<String> candidatos = indicesCandidatos.computeIfAbsent(tabela, t -> new HashSet<>());
+                    adicionarNomes(candidatos, possiveis);
+                    adicionarNomes(candidatos, chave);
+
+                    if ("ALL".equals(acesso) && filtrada) {
+                        if (possiveis == null) {
+                            Logger.aviso("[DiagnosticoConsultas] " + nome + ": varredura completa de " + tabela +
+                                " (nenhum índice aplicável, ~" + rs.getLong("rows") + " linhas)");
+                            alertas++;
+                        } else {
+                            Logger.dica("[DiagnosticoConsultas] " + nome + ": otimizador preferiu varrer " + tabela +
+                                " apesar de " + possiveis + " (tabela pequena?)");
+                        }
+                    } else if ("index".equals(acesso) && filtrada) {
+                        Logger.dica("[DiagnosticoConsultas] " + nome + ": varredura completa do índice " +
+                            chave + " em " + tabela);
+                    }
+
+                    if (extra != null && (extra.contains("Using filesort") || extra.contains("Using temporary"))) {
+                        Logger.dica("[DiagnosticoConsultas] " + nome + ": " + extra + " em " + tabela);
+                    }
+                }
+            }
+        }
+
+        Logger.debug("[DiagnosticoConsultas] " + nome + " analisada");
+        return alertas;
+    }
+
+    private static Map<String, String> resolverApelidos(String sql, Set<String> tabelas) {
+        Map<String, String> apelidos = new HashMap<>();
+        Matcher matcher = REFERENCIA_TABELA.matcher(sql);
+        while (matcher.find()) {
+            String tabela = matcher.group(1);
+            if (!tabelas.contains(tabela)) {
+                continue;
+            }
+            apelidos.put(tabela, tabela);
+            String apelido = matcher.group(2);
+            if (apelido != null && !PALAVRAS_RESERVADAS.contains(apelido.toUpperCase(Locale.ROOT))) {
+                apelidos.put(apelido, tabela);
+            }
+        }
+        return apelidos;
+    }
+
+    private static void vincularParametros(PreparedStatement stmt, String sql) throws SQLException {
+        // Valores fictícios: texto mantém índices em colunas VARCHAR; LIMIT/OFFSET exigem número
+        int indice = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) != '?') {
+                continue;
+            }
+            indice++;
+            String anterior = sql.substring(0, i).trim().toUpperCase(Locale.ROOT);
+            if (anterior.endsWith("LIMIT") || anterior.endsWith("OFFSET")) {
+                stmt.setInt(indice, 1);
+            } else {
+                stmt.setString(indice, "0");
+            }
+        }
+    }
+
+    private static void adicionarNomes(Set<String> destino, String lista) {
+        if (lista == null) {
+            return;
+        }
+        for (String nome : lista.split(",")) {
+            destino.add(nome.trim());
+        }
+    }
+
+    private static Indice indiceCobertor(Indice indice, List<Indice> indicesTabela) {
+        if (indice.unico) {
+            return null;
+        }
+        for (Indice outro : indicesTabela) {
+            if (outro == indice || outro.colunas.size() < indice.colunas.size() ||
+                    !outro.colunas.subList(0, indice.colunas.size()).equals(indice.colunas)) {
+                continue;
+            }
+            // Dois índices idênticos e não únicos: mantém o de menor nome
+            if (outro.colunas.size() > indice.colunas.size() || outro.unico || outro.nome.compareTo(indice.nome) < 0) {
+                return outro;
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> carregarTabelas(Connection conn) throws SQLException {
+        Set<String> tabelas = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_TABELAS);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                tabelas.add(rs.getString(1));
+            }
+        }
+        return tabelas;
+    }
+
+    private static Map<String, List<Indice>> carregarIndices(Connection conn) throws SQLException {
+        Map<String, Map<String, Indice>> porTabela = new LinkedHashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INDICES);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                String tabela = rs.getString(1);
+                String nome = rs.getString(2);
+                boolean unico = rs.getInt(3) == 0;
+                porTabela.computeIfAbsent(tabela, t -> new LinkedHashMap<>())
+                    .computeIfAbsent(nome, n -> new Indice(tabela, nome, unico))
+                    .colunas.add(rs.getString(4));
+            }
+        }
+
+        Map<String, List<Indice>> indices = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Indice>> tabela : porTabela.entrySet()) {
+            indices.put(tabela.getKey(), new ArrayList<>(tabela.getValue().values()));
+        }
+        return indices;
+    }
+
+    private static void removerIndices(Connection conn, Set<Indice> indices) {
+        for (Indice indice : indices) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    String.format(SQL_REMOVER_INDICE, indice.tabela, indice.nome))) {
+                stmt.executeUpdate();
+                Logger.sucesso("[DiagnosticoConsultas] Índice " + indice + " removido");
+            } catch (SQLException e) {
+                Logger.erro("[DiagnosticoConsultas] Falha ao remover índice " + indice + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class Indice implements Comparable<Indice> {
+        private final String tabela;
+        private final String nome;
+        private final boolean unico;
+        private final List<String> colunas = new ArrayList<>();
+
+        private Indice(String tabela, String nome, boolean unico) {
+            this.tabela = tabela;
+            this.nome = nome;
+            this.unico = unico;
+        }
+
+        @Override
+        public int compareTo(Indice outro) {
+            int comparacao = tabela.compareTo(outro.tabela);
+            return comparacao != 0 ? comparacao : nome.compareTo(outro.nome);
+        }
+
+        @Override
+        public String toString() {
+            return tabela + "." + nome + colunas;
+        }
+    }
+}
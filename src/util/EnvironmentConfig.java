@@ -2,6 +2,9 @@ package util;
 
 import io.github.cdimascio.dotenv.Dotenv;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class EnvironmentConfig {
 
     private static final Dotenv dotenv;
@@ -25,4 +28,163 @@ public class EnvironmentConfig {
     public static String getDatabasePassword() {
         return dotenv.get("DB_PASSWORD", "12345678");
     }
+
+    public static List<String> getDatabaseReplicaUrls() {
+        List<String> urls = new ArrayList<>();
+        for (String url : dotenv.get("DB_REPLICA_URLS", "").split(",")) {
+            if (!url.trim().isEmpty()) {
+                urls.add(url.trim());
+            }
+        }
+        return urls;
+    }
+
+    public static long getReplicaAtrasoMaximoSegundos() {
+        return getLong("DB_REPLICA_MAX_LAG_S", 5L);
+    }
+
+    public static boolean isReplicaSemMonitoramentoPermitida() {
+        return Boolean.parseBoolean(dotenv.get("DB_REPLICA_UNMONITORED", "false").trim());
+    }
+
+    public static long getReplicaIntervaloVerificacaoMs() {
+        return getLong("DB_REPLICA_CHECK_INTERVAL_MS", 5_000L);
+    }
+
+    public static int getPoolTamanhoMinimo() {
+        return getInt("DB_POOL_MIN", 2);
+    }
+
+    public static int getPoolTamanhoMaximo() {
+        return getInt("DB_POOL_MAX", 10);
+    }
+
+    public static long getPoolTempoOciosoMs() {
+        return getLong("DB_POOL_IDLE_TIMEOUT_MS", 300_000L);
+    }
+
+    public static long getPoolTempoEsperaMs() {
+        return getLong("DB_POOL_BORROW_TIMEOUT_MS", 5_000L);
+    }
+
+    public static long getPoolLimiteVazamentoMs() {
+        return getLong("DB_POOL_LEAK_THRESHOLD_MS", 60_000L);
+    }
+
+    public static boolean isPoolRastreamentoVazamentos() {
+        return Boolean.parseBoolean(dotenv.get("DB_POOL_LEAK_TRACE", "false").trim());
+    }
+
+    public static int getCacheInstrucoesTamanho() {
+        return getInt("DB_STMT_CACHE_SIZE", 32);
+    }
+
+    public static boolean isInstrucoesPreparadasNoServidor() {
+        return Boolean.parseBoolean(dotenv.get("DB_SERVER_PREP_STMTS", "false").trim());
+    }
+
+    public static boolean isMetricasSqlAtivas() {
+        return Boolean.parseBoolean(dotenv.get("DB_SQL_METRICS", "true").trim());
+    }
+
+    public static boolean isMetricasSqlRelatorioNoEncerramento() {
+        return Boolean.parseBoolean(dotenv.get("DB_SQL_METRICS_DUMP", "false").trim());
+    }
+
+    public static String getModoDiagnostico() {
+        return dotenv.get("DB_DIAGNOSTICO", "off").trim().toLowerCase();
+    }
+
+    public static String getModoPersistencia() {
+        return dotenv.get("PERSISTENCIA", "manter").trim().toLowerCase();
+    }
+
+    public static String getArquivoSnapshot() {
+        return dotenv.get("PERSISTENCIA_ARQUIVO", "dados/snapshot.bin").trim();
+    }
+
+    public static String getHttpCliente() {
+        return dotenv.get("HTTP_CLIENTE", "http2").trim().toLowerCase();
+    }
+
+    public static String getHttpExecutor() {
+        return dotenv.get("HTTP_EXECUTOR", "padrao").trim().toLowerCase();
+    }
+
+    public static long getHttpTimeoutMs() {
+        return getLong("HTTP_TIMEOUT_MS", 5_000L);
+    }
+
+    public static int getHttpTentativas() {
+        return getInt("HTTP_TENTATIVAS", 3);
+    }
+
+    public static long getHttpBackoffMs() {
+        return getLong("HTTP_BACKOFF_MS", 200L);
+    }
+
+    public static long getHttpBackoffMaximoMs() {
+        return getLong("HTTP_BACKOFF_MAX_MS", 2_000L);
+    }
+
+    public static int getHttpHedgePercentil() {
+        return getInt("HTTP_HEDGE_PERCENTIL", 0);
+    }
+
+    public static long getHttpHedgeAtrasoMs() {
+        return getLong("HTTP_HEDGE_ATRASO_MS", 1_000L);
+    }
+
+    public static long getCatalogoAtualizacaoSeg() {
+        return getLong("CATALOGO_ATUALIZACAO_SEG", 0L);
+    }
+
+    public static boolean isMetricasHttpRelatorioNoEncerramento() {
+        return Boolean.parseBoolean(dotenv.get("HTTP_METRICS_DUMP", "false").trim());
+    }
+
+    public static long getHttpTimeoutDiscentesMs() {
+        return getLong("HTTP_TIMEOUT_DISCENTES_MS", getHttpTimeoutMs());
+    }
+
+    public static long getHttpTimeoutDisciplinasMs() {
+        return getLong("HTTP_TIMEOUT_DISCIPLINAS_MS", getHttpTimeoutMs());
+    }
+
+    public static long getHttpTimeoutBibliotecaMs() {
+        return getLong("HTTP_TIMEOUT_BIBLIOTECA_MS", getHttpTimeoutMs());
+    }
+
+    public static String getModoRepositorio() {
+        return dotenv.get("REPOSITORIO", "mysql").trim().toLowerCase();
+    }
+
+    public static String getEmbarcadoDiretorio() {
+        return dotenv.get("EMBARCADO_DIRETORIO", "dados");
+    }
+
+    public static String getEmbarcadoPoliticaFsync() {
+        return dotenv.get("EMBARCADO_FSYNC", "periodica").trim().toUpperCase();
+    }
+
+    public static long getEmbarcadoIntervaloFsyncMs() {
+        return getLong("EMBARCADO_FSYNC_INTERVAL_MS", 1_000L);
+    }
+
+    private static int getInt(String chave, int padrao) {
+        return (int) getLong(chave, padrao);
+    }
+
+    private static long getLong(String chave, long padrao) {
+        String valor = dotenv.get(chave);
+        if (valor == null || valor.trim().isEmpty()) {
+            return padrao;
+        }
+        try {
+            return Long.parseLong(valor.trim());
+        } catch (NumberFormatException e) {
+            Logger.aviso("[EnvironmentConfig] Valor inválido para " + chave + ": " + valor + " (usando " + padrao + ")");
+            return padrao;
+        }
+    }
 }
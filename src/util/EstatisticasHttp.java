@@ -0,0 +1,134 @@
+package util;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EstatisticasHttp {
+
+    private final Map<String, Contadores> porEndpoint = new ConcurrentHashMap<>();
+
+    public void registrar(String url, String codificacao, long bytesRecebidos, long bytesDecodificados) {
+        Contadores contadores = porEndpoint.computeIfAbsent(endpoint(url), e -> new Contadores());
+        contadores.requisicoes.increment();
+        if (codificacao != null && !codificacao.isEmpty() && !"identity".equals(codificacao)) {
+            contadores.comprimidas.increment();
+        }
+        contadores.bytesRecebidos.add(bytesRecebidos);
+        contadores.bytesDecodificados.add(bytesDecodificados);
+    }
+
+    public void registrarNaoModificado(String url) {
+        Contadores contadores = porEndpoint.computeIfAbsent(endpoint(url), e -> new Contadores());
+        contadores.requisicoes.increment();
+        contadores.naoModificadas.increment();
+    }
+
+    private static String endpoint(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getAuthority() + (uri.getPath() != null ? uri.getPath() : "");
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    public List<Resumo> getResumos() {
+        List<Resumo> resumos = new ArrayList<>();
+        for (Map.Entry<String, Contadores> entrada : porEndpoint.entrySet()) {
+            resumos.add(entrada.getValue().resumir(entrada.getKey()));
+        }
+        resumos.sort((a, b) -> Long.compare(b.bytesDecodificados, a.bytesDecodificados));
+        return resumos;
+    }
+
+    public void limpar() {
+        porEndpoint.clear();
+    }
+
+    public String relatorio() {
+        List<Resumo> resumos = getResumos();
+        if (resumos.isEmpty()) {
+            return "Nenhuma requisição HTTP realizada.";
+        }
+
+        StringBuilder relatorio = new StringBuilder();
+        relatorio.append(String.format("%-70s %6s %6s %10s %12s %12s %7s%n",
+            "Endpoint", "Reqs", "304", "Comprim.", "Recebidos", "Decodif.", "Taxa"));
+        for (Resumo resumo : resumos) {
+            relatorio.append(String.format("%-70s %6d %6d %10d %12d %12d %6.1fx%n",
+                resumo.endpoint, resumo.requisicoes, resumo.requisicoesNaoModificadas, resumo.requisicoesComprimidas,
+                resumo.bytesRecebidos, resumo.bytesDecodificados, resumo.getTaxaCompressao()));
+        }
+        return relatorio.toString();
+    }
+
+    private static final class Contadores {
+        private final LongAdder requisicoes = new LongAdder();
+        private final LongAdder naoModificadas = new LongAdder();
+        private final LongAdder comprimidas = new LongAdder();
+        private final LongAdder bytesRecebidos = new LongAdder();
+        private final LongAdder bytesDecodificados = new LongAdder();
+
+        private Resumo resumir(String endpoint) {
+            return new Resumo(endpoint, requisicoes.sum(), naoModificadas.sum(), comprimidas.sum(),
+                bytesRecebidos.sum(), bytesDecodificados.sum());
+        }
+    }
+
+    public static final class Resumo {
+        private final String endpoint;
+        private final long requisicoes;
+        private final long requisicoesNaoModificadas;
+        private final long requisicoesComprimidas;
+        private final long bytesRecebidos;
+        private final long bytesDecodificados;
+
+        private Resumo(String endpoint, long requisicoes, long requisicoesNaoModificadas, long requisicoesComprimidas,
+                       long bytesRecebidos, long bytesDecodificados) {
+            this.endpoint = endpoint;
+            this.requisicoes = requisicoes;
+            this.requisicoesNaoModificadas = requisicoesNaoModificadas;
+            this.requisicoesComprimidas = requisicoesComprimidas;
+            this.bytesRecebidos = bytesRecebidos;
+            this.bytesDecodificados = bytesDecodificados;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public long getRequisicoes() {
+            return requisicoes;
+        }
+
+        public long getRequisicoesNaoModificadas() {
+            return requisicoesNaoModificadas;
+        }
+
+        public long getRequisicoesComprimidas() {
+            return requisicoesComprimidas;
+        }
+
+        public long getBytesRecebidos() {
+            return bytesRecebidos;
+        }
+
+        public long getBytesDecodificados() {
+            return bytesDecodificados;
+        }
+
+        public double getTaxaCompressao() {
+            return bytesRecebidos == 0 ? 1.0 : (double) bytesDecodificados / bytesRecebidos;
+        }
+
+        @Override
+        public String toString() {
+            return endpoint + ": " + requisicoes + " reqs (" + requisicoesNaoModificadas + " 304), " + bytesRecebidos + " bytes recebidos, " +
+                bytesDecodificados + " decodificados (" + String.format("%.1fx", getTaxaCompressao()) + ")";
+        }
+    }
+}
@@ -56,6 +56,33 @@ public class GeradorMatricula {
         return Integer.parseInt(matricula.substring(3, 7));
     }
 
+    public static int chaveSemestre(int ano, int semestre) {
+        if (ano < 2000 || ano > 2099) {
+            throw new IllegalArgumentException("Ano deve estar entre 2000 e 2099");
+        }
+
+        if (semestre != 1 && semestre != 2) {
+            throw new IllegalArgumentException("Semestre deve ser 1 ou 2");
+        }
+
+        return (ano % 100) * 10 + semestre;
+    }
+
+    public static int extrairChaveSemestre(String matricula) {
+        if (matricula == null || matricula.length() < 3) {
+            return 0;
+        }
+
+        for (int i = 0; i < 3; i++) {
+            char digito = matricula.charAt(i);
+            if (digito < '0' || digito > '9') {
+                return 0;
+            }
+        }
+
+        return Integer.parseInt(matricula.substring(0, 3));
+    }
+
     public static boolean validar(String matricula) {
         if (matricula == null || matricula.length() != 7) {
             return false;
@@ -7,13 +7,19 @@ import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import model.SituacaoAcademica;
 import model.StatusDisponibilidade;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class GsonParser {
 
@@ -54,6 +60,36 @@ public class GsonParser {
         }
     }
 
+    // Lê o array elemento a elemento, sem materializar o corpo inteiro; retorna quantos foram entregues
+    public <T> int parseListStream(Reader reader, Class<T> classOfT, Consumer<? super T> consumidor) throws IOException {
+        JsonReader jsonReader = new JsonReader(reader);
+        jsonReader.setLenient(true);
+
+        try {
+            if (jsonReader.peek() == JsonToken.NULL) {
+                jsonReader.nextNull();
+                return 0;
+            }
+
+            TypeAdapter<T> adapter = gson.getAdapter(classOfT);
+            int total = 0;
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+                consumidor.accept(adapter.read(jsonReader));
+                total++;
+            }
+            jsonReader.endArray();
+            return total;
+
+        } catch (JsonParseException | IllegalStateException e) {
+            if (e.getCause() instanceof IOException) {
+                // Falha de leitura (ex.: timeout do corpo) embrulhada pelo Gson: não é um corpo inválido
+                throw (IOException) e.getCause();
+            }
+            throw new CorpoInvalidoException("Falha ao fazer parse de lista de " + classOfT.getSimpleName() + ": " + e.getMessage(), e);
+        }
+    }
+
     private static class StatusDisponibilidadeDeserializer implements JsonDeserializer<StatusDisponibilidade> {
         @Override
         public StatusDisponibilidade deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
@@ -0,0 +1,205 @@
+package util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class HttpClientHttp2 implements IHttpClient, AutoCloseable {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final Duration timeoutPadrao;
+    private final EstatisticasHttp estatisticas;
+    private final ValidadoresHttp validadores = new ValidadoresHttp();
+
+    public HttpClientHttp2(ExecutorService executor, Duration timeoutPadrao, EstatisticasHttp estatisticas) {
+        this.executor = executor;
+        this.timeoutPadrao = timeoutPadrao;
+        this.estatisticas = estatisticas;
+
+        // Um único cliente para a aplicação: conexões (e sessões TLS) ficam no pool e são reaproveitadas
+        HttpClient.Builder builder = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL);
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        this.client = builder.build();
+    }
+
+    @Override
+    public String get(String url) throws IOException {
+        return get(url, timeoutPadrao);
+    }
+
+    @Override
+    public String get(String url, Duration timeout) throws IOException {
+        String[] corpo = new String[1];
+        executar(url, timeout, false, reader -> corpo[0] = DecodificacaoHttp.lerTexto(reader));
+        return corpo[0];
+    }
+
+    @Override
+    public String getSeModificado(String url, Duration timeout) throws IOException {
+        String[] corpo = new String[1];
+        return executar(url, timeout, true, reader -> corpo[0] = DecodificacaoHttp.lerTexto(reader)) ? corpo[0] : null;
+    }
+
+    @Override
+    public boolean getStream(String url, Duration timeout, boolean revalidar, LeitorCorpo leitor) throws IOException {
+        return executar(url, timeout, revalidar, leitor);
+    }
+
+    @Override
+    public void descartarValidadores(String url) {
+        validadores.remover(url);
+    }
+
+    private boolean executar(String url, Duration timeout, boolean condicional, LeitorCorpo leitor) throws IOException {
+        ValidadoresHttp.Validador validador = condicional ? validadores.buscar(url) : null;
+        HttpRequest request;
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", DecodificacaoHttp.ACCEPT_ENCODING)
+                .header("User-Agent", "AcademicSystem/1.0")
+                .GET();
+            if (validador != null && validador.getEtag() != null) {
+                builder.header("If-None-Match", validador.getEtag());
+            }
+            if (validador != null && validador.getUltimaModificacao() != null) {
+                builder.header("If-Modified-Since", validador.getUltimaModificacao());
+            }
+            request = builder.build();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("URL inválida: " + url, e);
+        }
+
+        try {
+            // O corpo chega como fluxo para ser descomprimido à medida que é lido
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() == HTTP_NOT_MODIFIED && validador != null) {
+                response.body().close();
+                if (estatisticas != null) {
+                    estatisticas.registrarNaoModificado(url);
+                }
+                return false;
+            }
+            if (response.statusCode() != HTTP_OK) {
+                response.body().close();
+                throw new StatusHttpException(response.statusCode(), "HTTP Error: " + response.statusCode());
+            }
+
+            Logger.debug("[HttpClientHttp2] " + url + " via " + response.version());
+            DecodificacaoHttp.consumir(url, new CorpoComPrazo(response.body(), timeout),
+                response.headers().firstValue("Content-Encoding").orElse(null), estatisticas, leitor);
+            validadores.registrar(url, response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null));
+            return true;
+
+        } catch (HttpTimeoutException e) {
+            throw new IOException("Timeout ao conectar com o serviço: " + url, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Requisição interrompida: " + url, e);
+        } catch (StatusHttpException | CorpoInvalidoException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new IOException("Erro ao realizar requisição HTTP: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    // HttpRequest.timeout só cobre a espera pelos cabeçalhos; sem isto, um servidor que para no meio do corpo
+    // prende a leitura para sempre. Como o read timeout do HttpURLConnection, o prazo conta o tempo sem dados
+    private static final class CorpoComPrazo extends FilterInputStream {
+        private final long prazoNanos;
+        private volatile long ultimaAtividade = System.nanoTime();
+        private volatile boolean expirado;
+        private volatile boolean encerrado;
+
+        private CorpoComPrazo(InputStream corpo, Duration timeout) {
+            super(corpo);
+            this.prazoNanos = timeout.toNanos();
+            agendar(prazoNanos);
+        }
+
+        private void agendar(long esperaNanos) {
+            CompletableFuture.delayedExecutor(esperaNanos, TimeUnit.NANOSECONDS).execute(this::verificar);
+        }
+
+        private void verificar() {
+            if (encerrado) {
+                return;
+            }
+            long ocioso = System.nanoTime() - ultimaAtividade;
+            if (ocioso < prazoNanos) {
+                agendar(prazoNanos - ocioso);
+                return;
+            }
+            expirado = true;
+            try {
+                in.close();
+            } catch (IOException e) {
+                // o leitor bloqueado recebe o erro do fechamento de qualquer forma
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                int lido = super.read();
+                ultimaAtividade = System.nanoTime();
+                return lido;
+            } catch (IOException e) {
+                throw expirado ? expiracao(e) : e;
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int inicio, int tamanho) throws IOException {
+            try {
+                int lidos = super.read(buffer, inicio, tamanho);
+                ultimaAtividade = System.nanoTime();
+                return lidos;
+            } catch (IOException e) {
+                throw expirado ? expiracao(e) : e;
+            }
+        }
+
+        private IOException expiracao(IOException causa) {
+            HttpTimeoutException timeout = new HttpTimeoutException(
+                "Corpo da resposta sem dados por " + TimeUnit.NANOSECONDS.toMillis(prazoNanos) + " ms");
+            timeout.initCause(causa);
+            return timeout;
+        }
+
+        @Override
+        public void close() throws IOException {
+            encerrado = true;
+            super.close();
+        }
+    }
+}
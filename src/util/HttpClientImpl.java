@@ -1,75 +1,110 @@
 package util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
 import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 public class HttpClientImpl implements IHttpClient {
 
     private static final int CONNECT_TIMEOUT_MILLISECONDS = 5000;
     private static final int READ_TIMEOUT_MILLISECONDS = 5000;
     private static final String REQUEST_METHOD = "GET";
-    private static final int BUFFER_SIZE = 8192;
+
+    private final EstatisticasHttp estatisticas;
+    private final ValidadoresHttp validadores = new ValidadoresHttp();
+
+    public HttpClientImpl() {
+        this(null);
+    }
+
+    public HttpClientImpl(EstatisticasHttp estatisticas) {
+        this.estatisticas = estatisticas;
+    }
 
     @Override
     public String get(String url) throws IOException {
+        return get(url, Duration.ofMillis(READ_TIMEOUT_MILLISECONDS));
+    }
+
+    @Override
+    public String get(String url, Duration timeout) throws IOException {
+        String[] corpo = new String[1];
+        executar(url, timeout, false, reader -> corpo[0] = DecodificacaoHttp.lerTexto(reader));
+        return corpo[0];
+    }
+
+    @Override
+    public String getSeModificado(String url, Duration timeout) throws IOException {
+        String[] corpo = new String[1];
+        return executar(url, timeout, true, reader -> corpo[0] = DecodificacaoHttp.lerTexto(reader)) ? corpo[0] : null;
+    }
+
+    @Override
+    public boolean getStream(String url, Duration timeout, boolean revalidar, LeitorCorpo leitor) throws IOException {
+        return executar(url, timeout, revalidar, leitor);
+    }
+
+    @Override
+    public void descartarValidadores(String url) {
+        validadores.remover(url);
+    }
+
+    private boolean executar(String url, Duration timeout, boolean condicional, LeitorCorpo leitor) throws IOException {
         HttpURLConnection connection = null;
-        BufferedReader reader = null;
 
         try {
             URI uri = new URI(url);
             connection = (HttpURLConnection) uri.toURL().openConnection();
             connection.setRequestMethod(REQUEST_METHOD);
             connection.setConnectTimeout(CONNECT_TIMEOUT_MILLISECONDS);
-            connection.setReadTimeout(READ_TIMEOUT_MILLISECONDS);
+            connection.setReadTimeout((int) timeout.toMillis());
 
             connection.setRequestProperty("Accept", "application/json");
-            connection.setRequestProperty("Accept-Encoding", "gzip, deflate");
+            connection.setRequestProperty("Accept-Encoding", DecodificacaoHttp.ACCEPT_ENCODING);
             connection.setRequestProperty("Connection", "keep-alive");
             connection.setRequestProperty("User-Agent", "AcademicSystem/1.0");
 
+            ValidadoresHttp.Validador validador = condicional ? validadores.buscar(url) : null;
+            if (validador != null && validador.getEtag() != null) {
+                connection.setRequestProperty("If-None-Match", validador.getEtag());
+            }
+            if (validador != null && validador.getUltimaModificacao() != null) {
+                connection.setRequestProperty("If-Modified-Since", validador.getUltimaModificacao());
+            }
+
             connection.setUseCaches(false);
 
             connection.setInstanceFollowRedirects(true);
 
             int responseCode = connection.getResponseCode();
-            if (responseCode != HttpURLConnection.HTTP_OK) {
-                throw new IOException("HTTP Error: " + responseCode + " - " + connection.getResponseMessage());
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && validador != null) {
+                if (estatisticas != null) {
+                    estatisticas.registrarNaoModificado(url);
+                }
+                return false;
             }
-
-            reader = new BufferedReader(
-                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8),
-                BUFFER_SIZE
-            );
-
-            StringBuilder response = new StringBuilder(BUFFER_SIZE);
-            char[] buffer = new char[BUFFER_SIZE];
-            int charsRead;
-
-            while ((charsRead = reader.read(buffer)) != -1) {
-                response.append(buffer, 0, charsRead);
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new StatusHttpException(responseCode, "HTTP Error: " + responseCode + " - " + connection.getResponseMessage());
             }
 
-            return response.toString();
+            DecodificacaoHttp.consumir(url, connection.getInputStream(),
+                connection.getContentEncoding(), estatisticas, leitor);
+            validadores.registrar(url, connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified"));
+            return true;
 
         } catch (SocketTimeoutException e) {
             throw new IOException("Timeout ao conectar com o serviço: " + url, e);
-        } catch (URISyntaxException e) {
+        } catch (URISyntaxException | IllegalArgumentException | MalformedURLException e) {
             throw new IOException("URL inválida: " + url, e);
+        } catch (StatusHttpException | CorpoInvalidoException e) {
+            throw e;
         } catch (IOException e) {
             throw new IOException("Erro ao realizar requisição HTTP: " + e.getMessage(), e);
         } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException e) {
-                }
-            }
             if (connection != null) {
                 connection.disconnect();
             }
@@ -0,0 +1,262 @@
+package util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class HttpClientResiliente implements IHttpClient, AutoCloseable {
+
+    private static final int TAMANHO_JANELA = 64;
+    private static final int AMOSTRAS_MINIMAS = 10;
+
+    private final IHttpClient delegado;
+    private final int tentativas;
+    private final long backoffBaseMs;
+    private final long backoffMaximoMs;
+    private final int percentilHedge;
+    private final long atrasoHedgeInicialMs;
+    private final ExecutorService executorHedge;
+    private final Map<String, JanelaLatencias> latencias = new ConcurrentHashMap<>();
+    private final LongAdder novasTentativas = new LongAdder();
+    private final LongAdder hedgesDisparados = new LongAdder();
+    private final LongAdder hedgesVencedores = new LongAdder();
+
+    public HttpClientResiliente(IHttpClient delegado, int tentativas, Duration backoffBase, Duration backoffMaximo,
+                                int percentilHedge, Duration atrasoHedgeInicial, ExecutorService executorHedge) {
+        this.delegado = delegado;
+        this.tentativas = Math.max(1, tentativas);
+        this.backoffBaseMs = backoffBase.toMillis();
+        this.backoffMaximoMs = backoffMaximo.toMillis();
+        this.percentilHedge = executorHedge != null ? percentilHedge : 0;
+        this.atrasoHedgeInicialMs = atrasoHedgeInicial.toMillis();
+        this.executorHedge = executorHedge;
+    }
+
+    @FunctionalInterface
+    private interface Requisicao<T> {
+        T executar() throws IOException;
+    }
+
+    @Override
+    public String get(String url) throws IOException {
+        return executar(url, () -> delegado.get(url));
+    }
+
+    @Override
+    public String get(String url, Duration timeout) throws IOException {
+        return executar(url, () -> delegado.get(url, timeout));
+    }
+
+    @Override
+    public String getSeModificado(String url, Duration timeout) throws IOException {
+        return executar(url, () -> delegado.getSeModificado(url, timeout));
+    }
+
+    @Override
+    public boolean getStream(String url, Duration timeout, boolean revalidar, LeitorCorpo leitor) throws IOException {
+        if (percentilHedge <= 0) {
+            return executar(url, () -> delegado.getStream(url, timeout, revalidar, leitor));
+        }
+
+        // Com hedge, duas respostas podem chegar ao mesmo tempo: cada uma é lida em separado e só a vencedora vai ao leitor
+        String corpo = executar(url, () -> {
+            String[] texto = new String[1];
+            boolean modificado = delegado.getStream(url, timeout, revalidar,
+                reader -> texto[0] = DecodificacaoHttp.lerTexto(reader));
+            return modificado ? texto[0] : null;
+        });
+        if (corpo == null) {
+            return false;
+        }
+        try {
+            leitor.ler(new StringReader(corpo));
+        } catch (IOException | RuntimeException e) {
+            // O delegado já registrou os validadores deste corpo, que o leitor acabou de recusar
+            delegado.descartarValidadores(url);
+            throw e;
+        }
+        return true;
+    }
+
+    @Override
+    public void descartarValidadores(String url) {
+        delegado.descartarValidadores(url);
+    }
+
+    private <T> T executar(String url, Requisicao<T> requisicao) throws IOException {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return percentilHedge > 0 ? comHedge(url, requisicao) : cronometrar(url, requisicao);
+            } catch (IOException e) {
+                if (tentativa >= tentativas || !repetivel(e)) {
+                    throw e;
+                }
+
+                long espera = backoff(tentativa);
+                novasTentativas.increment();
+                Logger.aviso("[HttpClientResiliente] Tentativa " + tentativa + "/" + tentativas + " falhou para " +
+                    url + " (" + e.getMessage() + "); repetindo em " + espera + " ms");
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException interrupcao) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Requisição interrompida: " + url, interrupcao);
+                }
+            }
+        }
+    }
+
+    private <T> T cronometrar(String url, Requisicao<T> requisicao) throws IOException {
+        long inicio = System.nanoTime();
+        T resultado = requisicao.executar();
+        latencias.computeIfAbsent(url, u -> new JanelaLatencias())
+            .registrar(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        return resultado;
+    }
+
+    private <T> T comHedge(String url, Requisicao<T> requisicao) throws IOException {
+        ExecutorCompletionService<T> conclusoes = new ExecutorCompletionService<>(executorHedge);
+        List<Future<T>> emAndamento = new ArrayList<>(2);
+        emAndamento.add(conclusoes.submit(() -> cronometrar(url, requisicao)));
+
+        try {
+            long atraso = atrasoHedge(url);
+            Future<T> concluida = conclusoes.poll(atraso, TimeUnit.MILLISECONDS);
+            if (concluida == null) {
+                hedgesDisparados.increment();
+                Logger.debug("[HttpClientResiliente] " + url + " sem resposta em " + atraso + " ms; disparando requisição duplicada");
+                Future<T> duplicada = conclusoes.submit(() -> cronometrar(url, requisicao));
+                emAndamento.add(duplicada);
+                concluida = conclusoes.take();
+                if (concluida == duplicada && !falhou(concluida)) {
+                    hedgesVencedores.increment();
+                }
+            }
+
+            // Se a primeira a terminar falhou e há outra em andamento, o resultado é o dela
+            if (falhou(concluida) && emAndamento.size() > 1) {
+                concluida = conclusoes.take();
+            }
+            return concluida.get();
+
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            throw new IOException("Erro ao realizar requisição HTTP: " + causa.getMessage(), causa);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Requisição interrompida: " + url, e);
+        } finally {
+            for (Future<T> futura : emAndamento) {
+                futura.cancel(true);
+            }
+        }
+    }
+
+    private static boolean falhou(Future<?> futura) {
+        try {
+            futura.get();
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    private long atrasoHedge(String url) {
+        JanelaLatencias janela = latencias.get(url);
+        long percentil = janela != null ? janela.percentil(percentilHedge) : -1;
+        return percentil >= 0 ? percentil : atrasoHedgeInicialMs;
+    }
+
+    private long backoff(int tentativa) {
+        // Backoff exponencial com jitter: metade fixa, metade sorteada, para as retentativas não chegarem juntas
+        long teto = Math.min(backoffMaximoMs, backoffBaseMs << Math.min(tentativa - 1, 20));
+        return teto / 2 + ThreadLocalRandom.current().nextLong(teto / 2 + 1);
+    }
+
+    private static boolean repetivel(IOException e) {
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        // Só falhas transitórias: corpo inválido, URL malformada e demais erros se repetiriam igual
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof StatusHttpException) {
+                int status = ((StatusHttpException) causa).getStatus();
+                return status >= 500 || status == 408 || status == 429;
+            }
+            if (causa instanceof CorpoInvalidoException || causa instanceof InterruptedException
+                    || causa instanceof ClosedByInterruptException) {
+                return false;
+            }
+            if (causa instanceof SocketTimeoutException || causa instanceof HttpTimeoutException
+                    || causa instanceof SocketException || causa instanceof UnknownHostException
+                    || causa instanceof EOFException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        if (novasTentativas.sum() > 0 || hedgesDisparados.sum() > 0) {
+            Logger.info("[HttpClientResiliente] " + novasTentativas.sum() + " novas tentativas, " +
+                hedgesDisparados.sum() + " requisições duplicadas (" + hedgesVencedores.sum() + " venceram)");
+        }
+        if (executorHedge != null) {
+            executorHedge.shutdownNow();
+        }
+        if (delegado instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) delegado).close();
+            } catch (Exception e) {
+                Logger.erro("[HttpClientResiliente] Erro ao fechar cliente HTTP: " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class JanelaLatencias {
+        private final long[] amostras = new long[TAMANHO_JANELA];
+        private int proxima;
+        private int total;
+
+        private synchronized void registrar(long duracaoMs) {
+            amostras[proxima] = duracaoMs;
+            proxima = (proxima + 1) % TAMANHO_JANELA;
+            total = Math.min(total + 1, TAMANHO_JANELA);
+        }
+
+        private synchronized long percentil(int percentil) {
+            if (total < AMOSTRAS_MINIMAS) {
+                return -1;
+            }
+            long[] ordenadas = Arrays.copyOf(amostras, total);
+            Arrays.sort(ordenadas);
+            int indice = (int) Math.ceil(percentil / 100.0 * total) - 1;
+            return ordenadas[Math.max(0, Math.min(indice, total - 1))];
+        }
+    }
+}
@@ -1,8 +1,39 @@
 package util;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.Duration;
 
 public interface IHttpClient {
 
     String get(String url) throws IOException;
+
+    default String get(String url, Duration timeout) throws IOException {
+        return get(url);
+    }
+
+    // Revalida com If-None-Match/If-Modified-Since; null quando o servidor responde 304
+    default String getSeModificado(String url, Duration timeout) throws IOException {
+        return get(url, timeout);
+    }
+
+    // Entrega o corpo ao leitor à medida que chega; false quando a revalidação resulta em 304
+    default boolean getStream(String url, Duration timeout, boolean revalidar, LeitorCorpo leitor) throws IOException {
+        String corpo = revalidar ? getSeModificado(url, timeout) : get(url, timeout);
+        if (corpo == null) {
+            return false;
+        }
+        leitor.ler(new StringReader(corpo));
+        return true;
+    }
+
+    // Esquece ETag/Last-Modified da URL: a próxima revalidação baixa o corpo completo
+    default void descartarValidadores(String url) {
+    }
+
+    @FunctionalInterface
+    interface LeitorCorpo {
+        void ler(Reader corpo) throws IOException;
+    }
 }
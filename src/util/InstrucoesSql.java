@@ -0,0 +1,31 @@
+package util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class InstrucoesSql {
+
+    private InstrucoesSql() {
+    }
+
+    public static Map<String, String> declaradas(Class<?> origem) {
+        Map<String, String> instrucoes = new LinkedHashMap<>();
+        for (Field campo : origem.getDeclaredFields()) {
+            int modificadores = campo.getModifiers();
+            if (!campo.getName().startsWith("SQL_") || campo.getType() != String.class ||
+                    !Modifier.isStatic(modificadores) || !Modifier.isFinal(modificadores)) {
+                continue;
+            }
+
+            try {
+                campo.setAccessible(true);
+                instrucoes.put(origem.getSimpleName() + "." + campo.getName(), (String) campo.get(null));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                Logger.debug("[InstrucoesSql] Instrução " + campo.getName() + " ignorada: " + e.getMessage());
+            }
+        }
+        return instrucoes;
+    }
+}
@@ -0,0 +1,134 @@
+package util;
+
+import java.util.Arrays;
+
+public class MapaLongInt {
+
+    private static final float FATOR_CARGA = 0.6f;
+
+    private long[] chaves;
+    private int[] valores;
+    private boolean[] ocupados;
+    private int tamanho;
+    private int limiteRedimensionamento;
+
+    public MapaLongInt() {
+        this(16);
+    }
+
+    public MapaLongInt(int capacidadeInicial) {
+        int capacidade = 16;
+        while (capacidade * FATOR_CARGA < capacidadeInicial) {
+            capacidade <<= 1;
+        }
+        alocar(capacidade);
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        valores = new int[capacidade];
+        ocupados = new boolean[capacidade];
+        limiteRedimensionamento = (int) (capacidade * FATOR_CARGA);
+    }
+
+    private static int espalhar(long chave) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int posicao(long chave) {
+        int mascara = chaves.length - 1;
+        int i = espalhar(chave) & mascara;
+        while (ocupados[i]) {
+            if (chaves[i] == chave) {
+                return i;
+            }
+            i = (i + 1) & mascara;
+        }
+        return -(i + 1);
+    }
+
+    public boolean contem(long chave) {
+        return posicao(chave) >= 0;
+    }
+
+    public int obter(long chave, int padrao) {
+        int i = posicao(chave);
+        return i >= 0 ? valores[i] : padrao;
+    }
+
+    public void definir(long chave, int valor) {
+        int i = posicao(chave);
+        if (i >= 0) {
+            valores[i] = valor;
+            return;
+        }
+        inserirNovo(-(i + 1), chave, valor);
+    }
+
+    public int somar(long chave, int delta) {
+        int i = posicao(chave);
+        if (i >= 0) {
+            valores[i] += delta;
+            return valores[i];
+        }
+        inserirNovo(-(i + 1), chave, delta);
+        return delta;
+    }
+
+    private void inserirNovo(int i, long chave, int valor) {
+        chaves[i] = chave;
+        valores[i] = valor;
+        ocupados[i] = true;
+        if (++tamanho > limiteRedimensionamento) {
+            redimensionar();
+        }
+    }
+
+    public boolean remover(long chave) {
+        int i = posicao(chave);
+        if (i < 0) {
+            return false;
+        }
+
+        // Remoção com deslocamento reverso: mantém as sequências de sondagem sem marcadores de exclusão
+        int mascara = chaves.length - 1;
+        int vazio = i;
+        int j = (i + 1) & mascara;
+        while (ocupados[j]) {
+            int ideal = espalhar(chaves[j]) & mascara;
+            if (((j - ideal) & mascara) >= ((j - vazio) & mascara)) {
+                chaves[vazio] = chaves[j];
+                valores[vazio] = valores[j];
+                vazio = j;
+            }
+            j = (j + 1) & mascara;
+        }
+        ocupados[vazio] = false;
+        tamanho--;
+        return true;
+    }
+
+    private void redimensionar() {
+        long[] chavesAntigas = chaves;
+        int[] valoresAntigos = valores;
+        boolean[] ocupadosAntigos = ocupados;
+
+        alocar(chaves.length << 1);
+        tamanho = 0;
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (ocupadosAntigos[i]) {
+                inserirNovo(-(posicao(chavesAntigas[i]) + 1), chavesAntigas[i], valoresAntigos[i]);
+            }
+        }
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public void limpar() {
+        Arrays.fill(ocupados, false);
+        tamanho = 0;
+    }
+}
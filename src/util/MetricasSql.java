@@ -0,0 +1,429 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+public class MetricasSql {
+
+    private static final String SEM_NOME = "(sem nome)";
+    private static final int LIMITE_CACHE_NOMES = 1024;
+    private static final double FATOR_FAIXA = 1.2;
+    private static final long MENOR_FAIXA_MICROS = 10;
+    private static final int TOTAL_FAIXAS = 90;
+    private static final long[] LIMITES_FAIXAS_MICROS = new long[TOTAL_FAIXAS];
+
+    static {
+        double limite = MENOR_FAIXA_MICROS;
+        for (int i = 0; i < TOTAL_FAIXAS; i++) {
+            LIMITES_FAIXAS_MICROS[i] = Math.round(limite);
+            limite *= FATOR_FAIXA;
+        }
+    }
+
+    private final Map<String, String> nomesPorSql = new ConcurrentHashMap<>();
+    private final List<Modelo> modelos = new CopyOnWriteArrayList<>();
+    private final Map<String, String> nomesResolvidos = new ConcurrentHashMap<>();
+    private final Map<String, Estatistica> estatisticas = new ConcurrentHashMap<>();
+
+    public void registrarInstrucoes(Class<?> origem) {
+        for (Map.Entry<String, String> instrucao : InstrucoesSql.declaradas(origem).entrySet()) {
+            String nome = instrucao.getKey();
+            String sql = instrucao.getValue();
+            if (sql.contains("%s")) {
+                modelos.add(new Modelo(nome, sql));
+            } else {
+                nomesPorSql.put(normalizar(sql), nome);
+            }
+        }
+        nomesResolvidos.clear();
+    }
+
+    public String nomear(String sql) {
+        if (sql == null) {
+            return SEM_NOME;
+        }
+
+        String nome = nomesResolvidos.get(sql);
+        if (nome != null) {
+            return nome;
+        }
+
+        String normalizado = normalizar(sql);
+        nome = nomesPorSql.get(normalizado);
+        if (nome == null) {
+            for (Modelo modelo : modelos) {
+                if (modelo.padrao.matcher(normalizado).matches()) {
+                    nome = modelo.nome;
+                    break;
+                }
+            }
+        }
+        if (nome == null) {
+            nome = SEM_NOME;
+        }
+
+        if (nomesResolvidos.size() < LIMITE_CACHE_NOMES) {
+            nomesResolvidos.put(sql, nome);
+        }
+        return nome;
+    }
+
+    private static String normalizar(String sql) {
+        return sql.trim().replaceAll("\\s+", " ");
+    }
+
+    public void registrar(String nome, long duracaoNanos, long linhas, SQLException erro) {
+        Estatistica estatistica = estatistica(nome);
+        estatistica.registrarDuracao(duracaoNanos);
+        if (linhas > 0) {
+            estatistica.linhas.add(linhas);
+        }
+        if (erro != null) {
+            estatistica.erros.computeIfAbsent(erro.getErrorCode(), codigo -> new LongAdder()).increment();
+        }
+    }
+
+    private Estatistica estatistica(String nome) {
+        return estatisticas.computeIfAbsent(nome, n -> new Estatistica());
+    }
+
+    public PreparedStatement instrumentar(PreparedStatement instrucao, String sql) {
+        InstrucaoMedida medida = new InstrucaoMedida(instrucao, nomear(sql));
+        return (PreparedStatement) Proxy.newProxyInstance(
+            PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, medida);
+    }
+
+    public Statement instrumentar(Statement instrucao) {
+        InstrucaoMedida medida = new InstrucaoMedida(instrucao, null);
+        return (Statement) Proxy.newProxyInstance(
+            Statement.class.getClassLoader(), new Class<?>[]{Statement.class}, medida);
+    }
+
+    public List<Resumo> getResumos() {
+        List<Resumo> resumos = new ArrayList<>();
+        for (Map.Entry<String, Estatistica> entrada : estatisticas.entrySet()) {
+            resumos.add(entrada.getValue().resumir(entrada.getKey()));
+        }
+        resumos.sort((a, b) -> Long.compare(b.tempoTotalMicros, a.tempoTotalMicros));
+        return resumos;
+    }
+
+    public Resumo getResumo(String nome) {
+        Estatistica estatistica = estatisticas.get(nome);
+        return estatistica != null ? estatistica.resumir(nome) : null;
+    }
+
+    public void limpar() {
+        estatisticas.clear();
+    }
+
+    public String relatorio() {
+        List<Resumo> resumos = getResumos();
+        if (resumos.isEmpty()) {
+            return "Nenhuma instrução SQL executada.";
+        }
+
+        StringBuilder relatorio = new StringBuilder();
+        relatorio.append(String.format("%-50s %8s %9s %9s %9s %9s %8s %10s  %s%n",
+            "Instrução", "Execs", "p50 ms", "p95 ms", "p99 ms", "máx ms", "Erros", "Linhas", "Códigos de erro"));
+        for (Resumo resumo : resumos) {
+            relatorio.append(String.format("%-50s %8d %9.3f %9.3f %9.3f %9.3f %8d %10d  %s%n",
+                resumo.nome, resumo.execucoes,
+                resumo.p50Micros / 1000.0, resumo.p95Micros / 1000.0, resumo.p99Micros / 1000.0,
+                resumo.maximoMicros / 1000.0, resumo.getTotalErros(), resumo.linhas,
+                resumo.errosPorCodigo.isEmpty() ? "-" : resumo.errosPorCodigo.toString()));
+        }
+        return relatorio.toString();
+    }
+
+    private static int faixa(long micros) {
+        int inicio = 0;
+        int fim = TOTAL_FAIXAS - 1;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (LIMITES_FAIXAS_MICROS[meio] >= micros) {
+                fim = meio;
+            } else {
+                inicio = meio + 1;
+            }
+        }
+        return inicio;
+    }
+
+    private static final class Modelo {
+        private final String nome;
+        private final Pattern padrao;
+
+        private Modelo(String nome, String sql) {
+            this.nome = nome;
+            String[] partes = normalizar(sql).split("%s", -1);
+            StringBuilder regex = new StringBuilder();
+            for (int i = 0; i < partes.length; i++) {
+                if (i > 0) {
+                    regex.append(".*");
+                }
+                regex.append(Pattern.quote(partes[i]));
+            }
+            this.padrao = Pattern.compile(regex.toString(), Pattern.DOTALL);
+        }
+    }
+
+    private static final class Estatistica {
+        private final AtomicLongArray faixas = new AtomicLongArray(TOTAL_FAIXAS);
+        private final LongAdder execucoes = new LongAdder();
+        private final LongAdder tempoTotalNanos = new LongAdder();
+        private final LongAccumulator maximoNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder linhas = new LongAdder();
+        private final Map<Integer, LongAdder> erros = new ConcurrentHashMap<>();
+
+        private void registrarDuracao(long duracaoNanos) {
+            execucoes.increment();
+            tempoTotalNanos.add(duracaoNanos);
+            maximoNanos.accumulate(duracaoNanos);
+            faixas.incrementAndGet(faixa(duracaoNanos / 1000));
+        }
+
+        private long percentil(long[] contagens, long total, double percentil) {
+            long alvo = (long) Math.ceil(total * percentil);
+            long acumulado = 0;
+            for (int i = 0; i < contagens.length; i++) {
+                acumulado += contagens[i];
+                if (acumulado >= alvo) {
+                    return LIMITES_FAIXAS_MICROS[i];
+                }
+            }
+            return LIMITES_FAIXAS_MICROS[TOTAL_FAIXAS - 1];
+        }
+
+        private Resumo resumir(String nome) {
+            long[] contagens = new long[TOTAL_FAIXAS];
+            long total = 0;
+            for (int i = 0; i < TOTAL_FAIXAS; i++) {
+                contagens[i] = faixas.get(i);
+                total += contagens[i];
+            }
+
+            Map<Integer, Long> errosPorCodigo = new TreeMap<>();
+            for (Map.Entry<Integer, LongAdder> erro : erros.entrySet()) {
+                errosPorCodigo.put(erro.getKey(), erro.getValue().sum());
+            }
+
+            long maximoMicros = maximoNanos.get() / 1000;
+            return new Resumo(
+                nome,
+                execucoes.sum(),
+                tempoTotalNanos.sum() / 1000,
+                total == 0 ? 0 : Math.min(percentil(contagens, total, 0.50), maximoMicros),
+                total == 0 ? 0 : Math.min(percentil(contagens, total, 0.95), maximoMicros),
+                total == 0 ? 0 : Math.min(percentil(contagens, total, 0.99), maximoMicros),
+                maximoMicros,
+                linhas.sum(),
+                errosPorCodigo);
+        }
+    }
+
+    private final class InstrucaoMedida implements InvocationHandler {
+        private final Statement instrucao;
+        private final String nomePreparado;
+
+        private InstrucaoMedida(Statement instrucao, String nomePreparado) {
+            this.instrucao = instrucao;
+            this.nomePreparado = nomePreparado;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nomeMetodo = metodo.getName();
+            if ("equals".equals(nomeMetodo)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(nomeMetodo)) {
+                return System.identityHashCode(proxy);
+            }
+
+            if (!nomeMetodo.startsWith("execute")) {
+                Object resultado = invocar(metodo, args);
+                if (resultado instanceof ResultSet && "getResultSet".equals(nomeMetodo)) {
+                    return contarLinhas((ResultSet) resultado, estatistica(nomeAtual(args)));
+                }
+                return resultado;
+            }
+
+            String nome = nomeAtual(args);
+            long inicio = System.nanoTime();
+            try {
+                Object resultado = invocar(metodo, args);
+                long duracao = System.nanoTime() - inicio;
+
+                if (resultado instanceof ResultSet) {
+                    registrar(nome, duracao, 0, null);
+                    return contarLinhas((ResultSet) resultado, estatistica(nome));
+                }
+                registrar(nome, duracao, linhasAfetadas(resultado), null);
+                return resultado;
+
+            } catch (SQLException e) {
+                registrar(nome, System.nanoTime() - inicio, 0, e);
+                throw e;
+            }
+        }
+
+        private String nomeAtual(Object[] args) {
+            if (nomePreparado != null) {
+                return nomePreparado;
+            }
+            return args != null && args.length > 0 && args[0] instanceof String ? nomear((String) args[0]) : SEM_NOME;
+        }
+
+        private long linhasAfetadas(Object resultado) {
+            if (resultado instanceof Integer) {
+                return (Integer) resultado;
+            }
+            if (resultado instanceof Long) {
+                return (Long) resultado;
+            }
+            long soma = 0;
+            if (resultado instanceof int[]) {
+                for (int linhas : (int[]) resultado) {
+                    soma += Math.max(linhas, 0);
+                }
+            } else if (resultado instanceof long[]) {
+                for (long linhas : (long[]) resultado) {
+                    soma += Math.max(linhas, 0);
+                }
+            }
+            return soma;
+        }
+
+        private Object invocar(Method metodo, Object[] args) throws Throwable {
+            try {
+                return metodo.invoke(instrucao, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static ResultSet contarLinhas(ResultSet resultSet, Estatistica estatistica) {
+        return (ResultSet) Proxy.newProxyInstance(
+            ResultSet.class.getClassLoader(),
+            new Class<?>[]{ResultSet.class},
+            (proxy, metodo, args) -> {
+                if ("equals".equals(metodo.getName())) {
+                    return proxy == args[0];
+                }
+                if ("hashCode".equals(metodo.getName())) {
+                    return System.identityHashCode(proxy);
+                }
+                try {
+                    Object resultado = metodo.invoke(resultSet, args);
+                    if ("next".equals(metodo.getName()) && Boolean.TRUE.equals(resultado)) {
+                        estatistica.linhas.increment();
+                    }
+                    return resultado;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+
+    public static final class Resumo {
+        private final String nome;
+        private final long execucoes;
+        private final long tempoTotalMicros;
+        private final long p50Micros;
+        private final long p95Micros;
+        private final long p99Micros;
+        private final long maximoMicros;
+        private final long linhas;
+        private final Map<Integer, Long> errosPorCodigo;
+
+        private Resumo(String nome, long execucoes, long tempoTotalMicros, long p50Micros, long p95Micros,
+                       long p99Micros, long maximoMicros, long linhas, Map<Integer, Long> errosPorCodigo) {
+            this.nome = nome;
+            this.execucoes = execucoes;
+            this.tempoTotalMicros = tempoTotalMicros;
+            this.p50Micros = p50Micros;
+            this.p95Micros = p95Micros;
+            this.p99Micros = p99Micros;
+            this.maximoMicros = maximoMicros;
+            this.linhas = linhas;
+            this.errosPorCodigo = Collections.unmodifiableMap(errosPorCodigo);
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        public long getExecucoes() {
+            return execucoes;
+        }
+
+        public long getTempoTotalMicros() {
+            return tempoTotalMicros;
+        }
+
+        public long getP50Micros() {
+            return p50Micros;
+        }
+
+        public long getP95Micros() {
+            return p95Micros;
+        }
+
+        public long getP99Micros() {
+            return p99Micros;
+        }
+
+        public long getMaximoMicros() {
+            return maximoMicros;
+        }
+
+        public long getLinhas() {
+            return linhas;
+        }
+
+        public Map<Integer, Long> getErrosPorCodigo() {
+            return errosPorCodigo;
+        }
+
+        public long getTotalErros() {
+            long total = 0;
+            for (long erros : errosPorCodigo.values()) {
+                total += erros;
+            }
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            return "Resumo{" +
+                    "nome='" + nome + '\'' +
+                    ", execucoes=" + execucoes +
+                    ", p50Micros=" + p50Micros +
+                    ", p95Micros=" + p95Micros +
+                    ", p99Micros=" + p99Micros +
+                    ", maximoMicros=" + maximoMicros +
+                    ", linhas=" + linhas +
+                    ", errosPorCodigo=" + errosPorCodigo +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RoteadorReplicas {
+
+    private static final String SQL_STATUS_REPLICA = "SHOW REPLICA STATUS";
+    private static final String SQL_STATUS_SLAVE = "SHOW SLAVE STATUS";
+    private static final int ERRO_SINTAXE = 1064;
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger proxima = new AtomicInteger();
+    private final long atrasoMaximoSegundos;
+    private final boolean permitirSemMonitoramento;
+    private final ScheduledExecutorService verificador;
+
+    public RoteadorReplicas(List<String> urls, Properties propriedadesDriver, long atrasoMaximoSegundos,
+                            boolean permitirSemMonitoramento, long intervaloVerificacaoMs, MetricasSql metricas) {
+        this.atrasoMaximoSegundos = atrasoMaximoSegundos;
+        this.permitirSemMonitoramento = permitirSemMonitoramento;
+
+        for (int i = 0; i < urls.size(); i++) {
+            ConnectionPool pool = new ConnectionPool(
+                    "replica-" + (i + 1),
+                    urls.get(i),
+                    EnvironmentConfig.getDatabaseUser(),
+                    EnvironmentConfig.getDatabasePassword(),
+                    propriedadesDriver,
+                    EnvironmentConfig.getPoolTamanhoMinimo(),
+                    EnvironmentConfig.getPoolTamanhoMaximo(),
+                    EnvironmentConfig.getPoolTempoOciosoMs(),
+                    EnvironmentConfig.getPoolTempoEsperaMs(),
+                    EnvironmentConfig.getPoolLimiteVazamentoMs(),
+                    EnvironmentConfig.isPoolRastreamentoVazamentos(),
+                    EnvironmentConfig.getCacheInstrucoesTamanho(),
+                    metricas);
+            replicas.add(new Replica(urls.get(i), pool));
+        }
+
+        this.verificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "RoteadorReplicas-Verificador");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        verificarReplicas();
+        if (!replicas.isEmpty()) {
+            verificador.scheduleWithFixedDelay(this::verificarReplicas,
+                intervaloVerificacaoMs, intervaloVerificacaoMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean possuiReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    public Connection emprestar() {
+        int total = replicas.size();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), Math.max(total, 1));
+
+        for (int i = 0; i < total; i++) {
+            Replica replica = replicas.get((inicio + i) % total);
+            if (!replica.saudavel) {
+                continue;
+            }
+            try {
+                return replica.pool.emprestar();
+            } catch (SQLException e) {
+                replica.saudavel = false;
+                Logger.aviso("[RoteadorReplicas] Réplica " + replica.url + " indisponível: " + e.getMessage());
+            }
+        }
+
+        return null;
+    }
+
+    private void verificarReplicas() {
+        for (Replica replica : replicas) {
+            boolean estavaSaudavel = replica.saudavel;
+            replica.saudavel = verificar(replica);
+
+            if (estavaSaudavel != replica.saudavel) {
+                if (replica.saudavel) {
+                    Logger.info("[RoteadorReplicas] Réplica " + replica.url + " de volta ao balanceamento.");
+                } else {
+                    Logger.aviso("[RoteadorReplicas] Réplica " + replica.url + " fora do balanceamento (atraso: " +
+                        (replica.atrasoSegundos < 0 ? "desconhecido" : replica.atrasoSegundos + "s") +
+                        (replica.motivo != null ? "; " + replica.motivo : "") + ")");
+                }
+            }
+        }
+    }
+
+    private boolean verificar(Replica replica) {
+        replica.motivo = null;
+        try (Connection conn = replica.pool.emprestar();
+             Statement stmt = conn.createStatement()) {
+
+            try (ResultSet rs = consultarStatus(stmt, replica)) {
+                if (!rs.next()) {
+                    return semMonitoramento(replica, "replicação parada ou não configurada");
+                }
+
+                String coluna = possuiColuna(rs, "Seconds_Behind_Source") ? "Seconds_Behind_Source" : "Seconds_Behind_Master";
+                long atraso = rs.getLong(coluna);
+                if (rs.wasNull()) {
+                    replica.atrasoSegundos = -1;
+                    replica.motivo = "thread de replicação parada";
+                    return false;
+                }
+
+                replica.atrasoSegundos = atraso;
+                return atraso <= atrasoMaximoSegundos;
+
+            } catch (SQLException e) {
+                return semMonitoramento(replica, "status de replicação indisponível: " + e.getMessage());
+            }
+
+        } catch (SQLException e) {
+            replica.atrasoSegundos = -1;
+            replica.motivo = e.getMessage();
+            return false;
+        }
+    }
+
+    private static ResultSet consultarStatus(Statement stmt, Replica replica) throws SQLException {
+        try {
+            return stmt.executeQuery(replica.instrucaoStatus);
+        } catch (SQLException e) {
+            // SHOW REPLICA STATUS só existe a partir do MySQL 8.0.22
+            if (e.getErrorCode() != ERRO_SINTAXE || SQL_STATUS_SLAVE.equals(replica.instrucaoStatus)) {
+                throw e;
+            }
+            replica.instrucaoStatus = SQL_STATUS_SLAVE;
+            return stmt.executeQuery(SQL_STATUS_SLAVE);
+        }
+    }
+
+    private boolean semMonitoramento(Replica replica, String motivo) {
+        // Sem como medir o atraso, a réplica pode estar arbitrariamente defasada
+        replica.atrasoSegundos = -1;
+        replica.motivo = motivo;
+        if (permitirSemMonitoramento) {
+            Logger.debug("[RoteadorReplicas] Réplica " + replica.url + " mantida sem monitoramento: " + motivo);
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean possuiColuna(ResultSet rs, String coluna) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (coluna.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void fechar() {
+        verificador.shutdownNow();
+        for (Replica replica : replicas) {
+            replica.pool.fechar();
+        }
+    }
+
+    private static final class Replica {
+        private final String url;
+        private final ConnectionPool pool;
+        private volatile boolean saudavel = true;
+        private volatile long atrasoSegundos;
+        private volatile String motivo;
+        private volatile String instrucaoStatus = SQL_STATUS_REPLICA;
+
+        private Replica(String url, ConnectionPool pool) {
+            this.url = url;
+            this.pool = pool;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package util;
+
+import java.io.IOException;
+
+public class StatusHttpException extends IOException {
+
+    private final int status;
+
+    public StatusHttpException(int status, String mensagem) {
+        super(mensagem);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,47 @@
+package util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ValidadoresHttp {
+
+    private final Map<String, Validador> porUrl = new ConcurrentHashMap<>();
+
+    public void registrar(String url, String etag, String ultimaModificacao) {
+        if (etag == null && ultimaModificacao == null) {
+            porUrl.remove(url);
+            return;
+        }
+        porUrl.put(url, new Validador(etag, ultimaModificacao));
+    }
+
+    public void remover(String url) {
+        porUrl.remove(url);
+    }
+
+    public Validador buscar(String url) {
+        return porUrl.get(url);
+    }
+
+    public void limpar() {
+        porUrl.clear();
+    }
+
+    public static final class Validador {
+        private final String etag;
+        private final String ultimaModificacao;
+
+        private Validador(String etag, String ultimaModificacao) {
+            this.etag = etag;
+            this.ultimaModificacao = ultimaModificacao;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getUltimaModificacao() {
+            return ultimaModificacao;
+        }
+    }
+}
@@ -32,9 +32,8 @@ public class ConsoleView {
 
             this.scanner = new Scanner(System.in);
 
-            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-                controllerFactory.getDatabaseConnection().limparTodasTabelas();
-            }, "ShutdownHook-DatabaseCleanup"));
+            Runtime.getRuntime().addShutdownHook(new Thread(
+                controllerFactory::encerrar, "ShutdownHook-Encerramento"));
 
             System.out.println("═".repeat(60));
             System.out.println("  Sistema inicializado com sucesso!");
@@ -45,7 +44,7 @@ public class ConsoleView {
             System.err.println("   " + e.getMessage());
             System.err.println("\n[DICA] Verifique:");
             System.err.println("   - Dependências em lib/ (mysql-connector, gson)");
-            System.err.println("   - MySQL configurado e rodando");
+            System.err.println("   - MySQL configurado e rodando (ou REPOSITORIO=embarcado/memoria)");
             System.err.println("   - Microsserviços acessíveis");
             e.printStackTrace();
             throw new RuntimeException("Falha ao inicializar o sistema", e);
@@ -119,7 +118,7 @@ public class ConsoleView {
             "SISTEMA ACADÊMICO - UNIFOR",
             "Gestão de Matrículas e Reservas"
         );
-        System.out.println("[OK] Conectado ao MySQL - Dados persistidos!");
+        System.out.println("[OK] " + controllerFactory.getDescricaoArmazenamento());
         System.out.println();
     }
 